@@ -0,0 +1,175 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.SubpopulationsApi;
+import org.sagebionetworks.bridge.rest.exceptions.ConsentRequiredException;
+import org.sagebionetworks.bridge.rest.model.ConsentSignature;
+import org.sagebionetworks.bridge.rest.model.ConsentStatus;
+import org.sagebionetworks.bridge.rest.model.GuidVersionHolder;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.SharingScope;
+import org.sagebionetworks.bridge.rest.model.Subpopulation;
+import org.sagebionetworks.bridge.rest.model.UserSessionInfo;
+import org.sagebionetworks.bridge.sdk.integration.TestUserHelper.TestUser;
+
+/**
+ * Simulates consent at study launch: many unconsented participants sign the study's default consent and a number of
+ * additional (optional) subpopulation consents at once, through createConsentSignature. Each signature also sends
+ * email and updates the user's session server-side, so besides signing latency and throughput this measures how long
+ * it takes, after a user's last signature returns, until signInAgain returns a session consented to every
+ * subpopulation the user signed.
+ *
+ * Configure with system properties: bulkConsent.users, bulkConsent.extraSubpopulations, bulkConsent.threads,
+ * bulkConsent.consentedTimeoutMillis.
+ */
+@Category(LoadTest.class)
+public class BulkConsentLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(BulkConsentLoadTest.class);
+
+    private static final int USERS = Integer.getInteger("bulkConsent.users", 50);
+    private static final int EXTRA_SUBPOPULATIONS = Integer.getInteger("bulkConsent.extraSubpopulations", 2);
+    private static final int THREADS = Integer.getInteger("bulkConsent.threads", 20);
+    private static final long CONSENTED_TIMEOUT_MILLIS = Long.getLong("bulkConsent.consentedTimeoutMillis", 30000L);
+    private static final long POLL_INTERVAL_MILLIS = 250L;
+    private static final int SETUP_THREADS = 10;
+
+    private TestUser developer;
+    private List<String> subpopGuids;
+    private List<TestUser> users;
+
+    @Before
+    public void before() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(BulkConsentLoadTest.class, true, Role.DEVELOPER);
+        SubpopulationsApi subpopsApi = developer.getClient(SubpopulationsApi.class);
+
+        // Optional, so users of other tests running against the study aren't required to sign them.
+        subpopGuids = new ArrayList<>();
+        for (int i=0; i < EXTRA_SUBPOPULATIONS; i++) {
+            Subpopulation subpop = new Subpopulation();
+            subpop.setName("Bulk consent " + i);
+            subpop.setRequired(false);
+            GuidVersionHolder keys = subpopsApi.createSubpopulation(subpop).execute().body();
+            subpopGuids.add(keys.getGuid());
+        }
+        users = TestUserHelper.createAndSignInUsers(BulkConsentLoadTest.class, false, USERS, SETUP_THREADS);
+    }
+
+    @After
+    public void after() throws Exception {
+        try {
+            if (subpopGuids != null) {
+                SubpopulationsApi adminSubpopsApi = TestUserHelper.getSignedInAdmin()
+                        .getClient(SubpopulationsApi.class);
+                for (String guid : subpopGuids) {
+                    try {
+                        adminSubpopsApi.deleteSubpopulation(guid, true).execute();
+                    } catch (RuntimeException e) {
+                        LOG.error("Error deleting subpopulation=" + guid + ": " + e.getMessage(), e);
+                    }
+                }
+            }
+            if (users != null) {
+                TestUserHelper.deleteUsers(users);
+            }
+        } finally {
+            if (developer != null) {
+                developer.signOutAndDeleteUser();
+            }
+        }
+    }
+
+    @Test
+    public void bulkConsent() throws Exception {
+        LatencyRecorder signatures = new LatencyRecorder("createConsentSignature");
+        LatencyRecorder consented = new LatencyRecorder("last signature to consented session");
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (TestUser user : users) {
+                futures.add(executor.submit(() -> consentUser(user, signatures, consented)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        LOG.info(signatures.summary());
+        LOG.info(consented.summary());
+
+        assertEquals("Signatures failed: " + signatures.getErrorCounts(), 0, signatures.getErrorCount());
+        assertEquals("Sessions not consented within " + CONSENTED_TIMEOUT_MILLIS + "ms: "
+                + consented.getErrorCounts(), 0, consented.getErrorCount());
+    }
+
+    private void consentUser(TestUser user, LatencyRecorder signatures, LatencyRecorder consented) {
+        ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+        ConsentSignature signature = new ConsentSignature().name("Bulk Consent User")
+                .birthdate(LocalDate.parse("1970-04-04")).scope(SharingScope.NO_SHARING);
+
+        List<String> guids = new ArrayList<>();
+        guids.add(user.getDefaultSubpopulation());
+        guids.addAll(subpopGuids);
+
+        for (String guid : guids) {
+            signatures.time(() -> usersApi.createConsentSignature(guid, signature).execute());
+        }
+        // Signing time is recorded above, so this only measures how long the session takes to catch up.
+        long start = System.nanoTime();
+        try {
+            awaitConsentedSession(user, guids);
+            consented.recordSuccess(start, System.nanoTime());
+        } catch (Exception e) {
+            consented.recordFailure(start, System.nanoTime(), e);
+        }
+    }
+
+    // Sign in until the session shows every signed subpopulation as consented.
+    private static void awaitConsentedSession(TestUser user, List<String> guids) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONSENTED_TIMEOUT_MILLIS);
+        while (true) {
+            UserSessionInfo session;
+            try {
+                session = user.signInAgain();
+            } catch (ConsentRequiredException e) {
+                session = e.getSession();
+            }
+            if (isConsented(session.getConsentStatuses(), guids)) {
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Session not consented to " + guids);
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+    }
+
+    private static boolean isConsented(Map<String, ConsentStatus> statuses, List<String> guids) {
+        for (String guid : guids) {
+            ConsentStatus status = statuses.get(guid);
+            if (status == null || !Boolean.TRUE.equals(status.getConsented())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,112 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.sagebionetworks.bridge.rest.exceptions.BridgeSDKException;
+import org.sagebionetworks.bridge.rest.exceptions.ConcurrentModificationException;
+
+/**
+ * Retries a call that fails with ConcurrentModificationException (an optimistic-locking conflict), backing off with
+ * "full jitter": before retry n, sleeps a random time between 0 and min(maxDelay, baseDelay * 2^(n-1)). Randomizing
+ * the whole delay keeps writers that conflicted with each other from retrying in lockstep.
+ *
+ * The call is retried as a whole, so it should re-read whatever it modifies (read-modify-write), otherwise every
+ * retry conflicts again. Other exceptions are not retried. Thread-safe; one retrier can be shared by many writers,
+ * and its counts cover all of them.
+ */
+public class ConflictRetrier {
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+    private final Map<Integer, Integer> retriesToSuccess = new TreeMap<>();
+
+    public ConflictRetrier(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        checkArgument(maxAttempts > 0, "maxAttempts must be positive");
+        checkArgument(baseDelayMillis >= 0, "baseDelayMillis can't be negative");
+        checkArgument(maxDelayMillis >= baseDelayMillis, "maxDelayMillis can't be less than baseDelayMillis");
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Make the call, retrying on conflict up to maxAttempts calls in total. If the last attempt also conflicts, its
+     * ConcurrentModificationException is thrown.
+     */
+    public <T> T call(Callable<T> call) {
+        checkNotNull(call);
+        for (int attempt=1; ; attempt++) {
+            try {
+                T result = call.call();
+                recordSuccess(attempt - 1);
+                return result;
+            } catch (ConcurrentModificationException e) {
+                conflicts.incrementAndGet();
+                if (attempt >= maxAttempts) {
+                    exhausted.incrementAndGet();
+                    throw e;
+                }
+                sleep(delayMillis(attempt));
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new BridgeSDKException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /** Delay before the retry that follows the given (1-based) failed attempt. */
+    long delayMillis(int attempt) {
+        // Cap the shift so the ceiling can't overflow.
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /** Conflicts seen, including those that were retried successfully. */
+    public long getConflictCount() {
+        return conflicts.get();
+    }
+
+    /** Calls that failed because they were still conflicting after maxAttempts attempts. */
+    public long getExhaustedCount() {
+        return exhausted.get();
+    }
+
+    /** Number of successful calls by how many retries they needed. */
+    public synchronized Map<Integer, Integer> getRetriesToSuccess() {
+        return new TreeMap<>(retriesToSuccess);
+    }
+
+    public synchronized double getMeanRetriesToSuccess() {
+        int calls = 0;
+        long retries = 0;
+        for (Map.Entry<Integer, Integer> entry : retriesToSuccess.entrySet()) {
+            calls += entry.getValue();
+            retries += (long) entry.getKey() * entry.getValue();
+        }
+        return (calls == 0) ? 0.0 : (double) retries / calls;
+    }
+
+    private synchronized void recordSuccess(int retries) {
+        retriesToSuccess.merge(retries, 1, Integer::sum);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BridgeSDKException("Interrupted while backing off", e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.StudyConsentsApi;
+import org.sagebionetworks.bridge.rest.api.SubpopulationsApi;
+import org.sagebionetworks.bridge.rest.model.GuidVersionHolder;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.StudyConsent;
+import org.sagebionetworks.bridge.rest.model.Subpopulation;
+import org.sagebionetworks.bridge.sdk.integration.TestUserHelper.TestUser;
+
+/**
+ * Measures how consent document calls scale with revision count and document size. For each maximum document size,
+ * creates a subpopulation and adds consent revisions through createConsent, each document larger than the last up to
+ * that size, publishing every Nth revision with publishConsent. Whenever the revision count reaches one of the
+ * checkpoints, logs latency and payload size of getAllConsents, getMostRecentConsent, getPublishedConsent, and
+ * getPublishedConsent through {@link StudyConsentCache}, as CSV rows. createConsent and publishConsent latency for
+ * the revisions added since the last checkpoint is logged as well.
+ *
+ * Configure with system properties: consentScaling.documentKbs and consentScaling.revisionCounts (comma-separated,
+ * ascending), consentScaling.publishEvery, consentScaling.repetitions.
+ */
+@Category(LoadTest.class)
+public class ConsentDocumentScalingLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(ConsentDocumentScalingLoadTest.class);
+
+    private static final String DOCUMENT_KBS = System.getProperty("consentScaling.documentKbs", "4,64,512");
+    private static final String REVISION_COUNTS = System.getProperty("consentScaling.revisionCounts", "10,50,200");
+    private static final int PUBLISH_EVERY = Integer.getInteger("consentScaling.publishEvery", 10);
+    private static final int REPETITIONS = Integer.getInteger("consentScaling.repetitions", 5);
+
+    private TestUser developer;
+    private List<String> subpopsToDelete;
+
+    @Before
+    public void before() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(ConsentDocumentScalingLoadTest.class, true, Role.DEVELOPER);
+        subpopsToDelete = new ArrayList<>();
+    }
+
+    @After
+    public void after() throws Exception {
+        try {
+            SubpopulationsApi adminSubpopsApi = TestUserHelper.getSignedInAdmin().getClient(SubpopulationsApi.class);
+            for (String guid : subpopsToDelete) {
+                try {
+                    adminSubpopsApi.deleteSubpopulation(guid, true).execute();
+                } catch (RuntimeException e) {
+                    LOG.error("Error deleting subpopulation=" + guid + ": " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            if (developer != null) {
+                developer.signOutAndDeleteUser();
+            }
+        }
+    }
+
+    @Test
+    public void consentDocumentScaling() throws Exception {
+        StudyConsentsApi consentsApi = developer.getClient(StudyConsentsApi.class);
+        SubpopulationsApi subpopsApi = developer.getClient(SubpopulationsApi.class);
+
+        String[] checkpoints = REVISION_COUNTS.split(",");
+        int maxRevisions = Integer.parseInt(checkpoints[checkpoints.length-1].trim());
+
+        LOG.info("maxDocumentKb,revisions,call,items,payloadBytes,p50Millis,p90Millis,maxMillis,errors");
+        for (String kbString : DOCUMENT_KBS.split(",")) {
+            int maxDocumentBytes = Integer.parseInt(kbString.trim()) * 1024;
+
+            // Not required, so it doesn't prevent other tests from creating users.
+            Subpopulation subpop = new Subpopulation();
+            subpop.setName(Tests.randomIdentifier(ConsentDocumentScalingLoadTest.class));
+            subpop.setRequired(false);
+            GuidVersionHolder keys = subpopsApi.createSubpopulation(subpop).execute().body();
+            String subpopGuid = keys.getGuid();
+            subpopsToDelete.add(subpopGuid);
+
+            LatencyRecorder creates = new LatencyRecorder("createConsent");
+            LatencyRecorder publishes = new LatencyRecorder("publishConsent");
+            int checkpointIndex = 0;
+            for (int i=0; i < maxRevisions; i++) {
+                StudyConsent consent = new StudyConsent();
+                consent.setDocumentContent(consentDocument(maxDocumentBytes * (i+1) / maxRevisions));
+                creates.timeOrThrow(() -> consentsApi.createConsent(subpopGuid, consent).execute());
+                if ((i+1) % PUBLISH_EVERY == 0) {
+                    DateTime createdOn = consentsApi.getMostRecentConsent(subpopGuid).execute().body()
+                            .getCreatedOn();
+                    publishes.timeOrThrow(() -> consentsApi.publishConsent(subpopGuid, createdOn).execute());
+                }
+
+                // The subpopulation starts with a default consent revision.
+                int revisions = i + 2;
+                if (i+1 == Integer.parseInt(checkpoints[checkpointIndex].trim())) {
+                    checkpointIndex++;
+                    logRecorder(maxDocumentBytes, revisions, "createConsent", creates, 1, 0);
+                    logRecorder(maxDocumentBytes, revisions, "publishConsent", publishes, 1, 0);
+                    creates = new LatencyRecorder("createConsent");
+                    publishes = new LatencyRecorder("publishConsent");
+                    measureReads(consentsApi, subpopGuid, maxDocumentBytes, revisions);
+                }
+            }
+        }
+    }
+
+    private void measureReads(StudyConsentsApi consentsApi, String subpopGuid, int maxDocumentBytes, int revisions) {
+        measure(maxDocumentBytes, revisions, "getAllConsents",
+                () -> consentsApi.getAllConsents(subpopGuid).execute().body().getItems());
+        measure(maxDocumentBytes, revisions, "getMostRecentConsent",
+                () -> consentsApi.getMostRecentConsent(subpopGuid).execute().body());
+        measure(maxDocumentBytes, revisions, "getPublishedConsent",
+                () -> consentsApi.getPublishedConsent(subpopGuid).execute().body());
+
+        // All but the first call are served from the cache.
+        StudyConsentCache cache = new StudyConsentCache(consentsApi, 100, Duration.standardMinutes(1));
+        measure(maxDocumentBytes, revisions, "cachedGetPublishedConsent",
+                () -> cache.getPublishedConsent(subpopGuid));
+    }
+
+    private void measure(int maxDocumentBytes, int revisions, String call, Callable<?> request) {
+        LatencyRecorder recorder = new LatencyRecorder(call);
+        Object result = null;
+        for (int i=0; i < REPETITIONS; i++) {
+            Object response = recorder.time(request);
+            if (response != null) {
+                result = response;
+            }
+        }
+        int items = (result instanceof List) ? ((List<?>) result).size() : (result == null ? 0 : 1);
+        int payloadBytes = (result == null) ? 0 : RestUtils.GSON.toJson(result).getBytes(UTF_8).length;
+        logRecorder(maxDocumentBytes, revisions, call, recorder, items, payloadBytes);
+        assertEquals(call + " failed: " + recorder.getErrorCounts(), 0, recorder.getErrorCount());
+    }
+
+    private void logRecorder(int maxDocumentBytes, int revisions, String call, LatencyRecorder recorder, int items,
+            int payloadBytes) {
+        LOG.info(String.format("%d,%d,%s,%d,%d,%.1f,%.1f,%.1f,%d", maxDocumentBytes / 1024, revisions, call, items,
+                payloadBytes, recorder.getPercentileMillis(50), recorder.getPercentileMillis(90),
+                recorder.getPercentileMillis(100), recorder.getErrorCount()));
+    }
+
+    /** HTML consent document of roughly the given size, built from numbered sections of paragraphs. */
+    static String consentDocument(int bytes) {
+        StringBuilder builder = new StringBuilder(bytes + 256);
+        builder.append("<h1>Consent to Participate</h1>");
+        for (int section=1; builder.length() < bytes; section++) {
+            builder.append("<h2>Section ").append(section).append("</h2>");
+            for (int p=0; p < 5 && builder.length() < bytes; p++) {
+                builder.append("<p>You are being asked to take part in a research study. Please read this section ")
+                        .append("carefully and ask any questions you have before you agree to take part.</p>");
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,285 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDateTime;
+
+/**
+ * A client-side evaluator for the Quartz-style cron triggers used in schedules, e.g. "0 0 11 ? * MON,WED,FRI *".
+ * Fields are seconds, minutes, hours, day-of-month, month, day-of-week and an optional year. Each field supports
+ * "*", "?", single values, lists, ranges, and increments ("0/15"); months and days of the week can be given by name
+ * (days of the week are numbered 1=SUN to 7=SAT, as in Quartz). The Quartz extensions L, W and # are not supported.
+ *
+ * Use {@link #compile(String)}, which parses each expression once into bit masks and caches the result. Fire times
+ * are computed with integer arithmetic on "local millis" (a local date and time expressed as milliseconds since
+ * 1970-01-01T00:00 with no time zone), so {@link #nextFireTimes(long, long[])} does not allocate. Callers convert to
+ * and from the user's time zone.
+ */
+public final class CronTrigger {
+
+    /** Returned by {@link #nextFireTime(long)} when the trigger never fires again. */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private static final String[] MONTH_NAMES = { "JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP",
+            "OCT", "NOV", "DEC" };
+    private static final String[] DAY_NAMES = { "SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT" };
+    private static final int MIN_YEAR = 1970;
+    private static final int MAX_YEAR = 2199;
+    private static final long SECONDS_PER_DAY = 86400L;
+    private static final long MILLIS_PER_SECOND = 1000L;
+    // Don't search further than this for a matching day. Covers any valid combination of day-of-month, month and
+    // day-of-week (e.g. Feb 29 on a Monday).
+    private static final int MAX_DAYS_SEARCHED = 366 * 30;
+    // Expressions come from a handful of schedules; the bound only protects against unbounded input.
+    private static final int MAX_CACHED = 1000;
+    private static final Cache<String, CronTrigger> CACHE = CacheBuilder.newBuilder().maximumSize(MAX_CACHED).build();
+
+    private final String expression;
+    // Bit n is set if the field matches value n (days of month and months are 1-based).
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final long daysOfMonth;
+    private final long months;
+    private final long daysOfWeek;
+    // Indexed from MIN_YEAR; null if any year matches.
+    private final long[] years;
+    private final boolean anyDayOfMonth;
+    private final boolean anyDayOfWeek;
+
+    /** The compiled trigger for this expression, parsing it only the first time it is seen. */
+    public static CronTrigger compile(String expression) {
+        checkNotNull(expression);
+        CronTrigger trigger = CACHE.getIfPresent(expression);
+        if (trigger == null) {
+            // Parse outside the cache so an invalid expression throws its own IllegalArgumentException. Two threads
+            // may both parse a new expression; they produce equal triggers, and the last one cached wins.
+            trigger = new CronTrigger(expression);
+            CACHE.put(expression, trigger);
+        }
+        return trigger;
+    }
+
+    // Package-private so benchmarks can measure parsing; everything else should go through compile().
+    CronTrigger(String expression) {
+        this.expression = expression;
+        String[] fields = expression.trim().split("\\s+");
+        checkArgument(fields.length == 6 || fields.length == 7, "Cron trigger must have 6 or 7 fields: %s",
+                expression);
+        this.seconds = parseField(fields[0], 0, 59, null)[0];
+        this.minutes = parseField(fields[1], 0, 59, null)[0];
+        this.hours = parseField(fields[2], 0, 23, null)[0];
+        this.daysOfMonth = parseField(fields[3], 1, 31, null)[0];
+        this.months = parseField(fields[4], 1, 12, MONTH_NAMES)[0];
+        this.daysOfWeek = parseField(fields[5], 1, 7, DAY_NAMES)[0];
+        this.years = (fields.length == 7 && !isUnrestricted(fields[6])) ? parseField(fields[6], MIN_YEAR, MAX_YEAR,
+                null) : null;
+        this.anyDayOfMonth = isUnrestricted(fields[3]);
+        this.anyDayOfWeek = isUnrestricted(fields[5]);
+        checkArgument(seconds != 0 && minutes != 0 && hours != 0, "Cron trigger never fires: %s", expression);
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /** The first fire time strictly after the given time, or null if there is none. */
+    public LocalDateTime nextFireTimeAfter(LocalDateTime after) {
+        checkNotNull(after);
+        long next = nextFireTime(after.toDateTime(DateTimeZone.UTC).getMillis());
+        return (next == NONE) ? null : new LocalDateTime(next, DateTimeZone.UTC);
+    }
+
+    /**
+     * Fill the array with the fire times following the given time (all in local millis), in order. Returns the
+     * number of fire times written, which is less than the array length only if the trigger stops firing.
+     */
+    public int nextFireTimes(long afterLocalMillis, long[] fireTimes) {
+        long after = afterLocalMillis;
+        for (int i=0; i < fireTimes.length; i++) {
+            after = nextFireTime(after);
+            if (after == NONE) {
+                return i;
+            }
+            fireTimes[i] = after;
+        }
+        return fireTimes.length;
+    }
+
+    /** The first fire time strictly after the given time (both in local millis), or {@link #NONE}. */
+    public long nextFireTime(long afterLocalMillis) {
+        // Start at the next whole second.
+        long start = Math.floorDiv(afterLocalMillis, MILLIS_PER_SECOND) + 1;
+        long epochDay = Math.floorDiv(start, SECONDS_PER_DAY);
+        int secondOfDay = (int) (start - epochDay * SECONDS_PER_DAY);
+
+        long lastDay = epochDay + MAX_DAYS_SEARCHED;
+        while (epochDay <= lastDay) {
+            // Decompose the day (see daysToCivil) and skip whole months and years that can't match.
+            long civil = daysToCivil(epochDay);
+            int year = (int) (civil >> 9);
+            int month = (int) ((civil >> 5) & 0xF);
+            int day = (int) (civil & 0x1F);
+            if (year < MIN_YEAR && years != null) {
+                epochDay = civilToDays(MIN_YEAR, 1, 1);
+                secondOfDay = 0;
+                continue;
+            }
+            if (year > MAX_YEAR && years != null) {
+                return NONE;
+            }
+            if (years != null && !isSet(years, year - MIN_YEAR)) {
+                epochDay = civilToDays(year + 1, 1, 1);
+                secondOfDay = 0;
+                continue;
+            }
+            if ((months & (1L << month)) == 0) {
+                epochDay = (month == 12) ? civilToDays(year + 1, 1, 1) : civilToDays(year, month + 1, 1);
+                secondOfDay = 0;
+                continue;
+            }
+            if (matchesDay(epochDay, day)) {
+                int timeOfDay = nextTimeOfDay(secondOfDay);
+                if (timeOfDay >= 0) {
+                    return (epochDay * SECONDS_PER_DAY + timeOfDay) * MILLIS_PER_SECOND;
+                }
+            }
+            epochDay++;
+            secondOfDay = 0;
+        }
+        return NONE;
+    }
+
+    private boolean matchesDay(long epochDay, int dayOfMonth) {
+        boolean domMatches = (daysOfMonth & (1L << dayOfMonth)) != 0;
+        // 1970-01-01 was a Thursday; Quartz numbers days 1=SUN to 7=SAT.
+        int dayOfWeek = (int) Math.floorMod(epochDay + 4, 7L) + 1;
+        boolean dowMatches = (daysOfWeek & (1L << dayOfWeek)) != 0;
+        if (anyDayOfMonth) {
+            return dowMatches;
+        } else if (anyDayOfWeek) {
+            return domMatches;
+        }
+        return domMatches && dowMatches;
+    }
+
+    // Earliest matching second of the day at or after secondOfDay, or -1 if there are none left today.
+    private int nextTimeOfDay(int secondOfDay) {
+        int hour = secondOfDay / 3600;
+        int minute = (secondOfDay / 60) % 60;
+        int second = secondOfDay % 60;
+        for (int h = nextSet(hours, hour); h >= 0; h = nextSet(hours, h + 1)) {
+            int startMinute = (h == hour) ? minute : 0;
+            for (int m = nextSet(minutes, startMinute); m >= 0; m = nextSet(minutes, m + 1)) {
+                int startSecond = (h == hour && m == minute) ? second : 0;
+                int s = nextSet(seconds, startSecond);
+                if (s >= 0) {
+                    return h * 3600 + m * 60 + s;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int nextSet(long mask, int from) {
+        if (from >= 64) {
+            return -1;
+        }
+        long remaining = mask & (-1L << from);
+        return (remaining == 0) ? -1 : Long.numberOfTrailingZeros(remaining);
+    }
+
+    private static boolean isSet(long[] mask, int bit) {
+        return (mask[bit >> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Civil date for a day count since 1970-01-01, packed as year << 9 | month << 5 | day. From Howard Hinnant's
+     * "chrono-compatible low-level date algorithms", which need no tables or allocation.
+     */
+    static long daysToCivil(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+        long month = (monthIndex < 10) ? monthIndex + 3 : monthIndex - 9;
+        long year = yearOfEra + era * 400 + ((month <= 2) ? 1 : 0);
+        return (year << 9) | (month << 5) | day;
+    }
+
+    /** Day count since 1970-01-01 for a civil date; the inverse of {@link #daysToCivil(long)}. */
+    static long civilToDays(int year, int month, int day) {
+        long y = (month <= 2) ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * ((month > 2) ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static boolean isUnrestricted(String field) {
+        return "?".equals(field) || "*".equals(field);
+    }
+
+    // Fields whose values fit in one long set bit (value), so lookups need no offset; years set bit (value - min).
+    private static long[] parseField(String field, int min, int max, String[] names) {
+        int offset = (max < 64) ? 0 : min;
+        long[] mask = new long[(max - offset) / 64 + 1];
+        for (String part : field.toUpperCase().split(",")) {
+            int step = 1;
+            int slash = part.indexOf('/');
+            if (slash >= 0) {
+                step = Integer.parseInt(part.substring(slash + 1));
+                checkArgument(step > 0, "Invalid increment: %s", field);
+                part = part.substring(0, slash);
+            }
+            int start;
+            int end;
+            if ("*".equals(part) || "?".equals(part)) {
+                start = min;
+                end = max;
+            } else if (part.indexOf('-') > 0) {
+                String[] range = part.split("-");
+                start = parseValue(range[0], min, names);
+                end = parseValue(range[1], min, names);
+            } else {
+                start = parseValue(part, min, names);
+                end = (slash >= 0) ? max : start;
+            }
+            checkArgument(start >= min && end <= max && start <= end, "Value out of range: %s", field);
+            for (int i = start; i <= end; i += step) {
+                int bit = i - offset;
+                mask[bit >> 6] |= 1L << bit;
+            }
+        }
+        return mask;
+    }
+
+    private static int parseValue(String value, int min, String[] names) {
+        if (names != null) {
+            int index = Arrays.asList(names).indexOf(value);
+            if (index >= 0) {
+                return index + min;
+            }
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unsupported cron value: " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
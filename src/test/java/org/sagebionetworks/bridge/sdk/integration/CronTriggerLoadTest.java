@@ -0,0 +1,85 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTimeConstants;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDateTime;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of {@link CronTrigger}, reported as fire times computed per second. The JUnit test checks the
+ * trigger used by Tests' schedules, then runs the benchmarks.
+ */
+@Category(LoadTest.class)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CronTriggerLoadTest {
+
+    private static final String EXPRESSION = "0 0 11 ? * MON,WED,FRI *";
+    private static final int OCCURRENCES = 100;
+
+    private final long start = new LocalDateTime(2017, 1, 1, 0, 0).toDateTime(DateTimeZone.UTC).getMillis();
+    private final long[] fireTimes = new long[OCCURRENCES];
+
+    @Test
+    public void benchmarkCronTrigger() throws Exception {
+        CronTrigger trigger = CronTrigger.compile(EXPRESSION);
+        LocalDateTime fireTime = trigger.nextFireTimeAfter(new LocalDateTime(2017, 1, 1, 0, 0));
+        assertEquals(new LocalDateTime(2017, 1, 2, 11, 0), fireTime);
+        assertEquals(DateTimeConstants.MONDAY, fireTime.getDayOfWeek());
+        assertEquals(new LocalDateTime(2017, 1, 4, 11, 0), trigger.nextFireTimeAfter(fireTime));
+
+        new Runner(new OptionsBuilder().include(CronTriggerLoadTest.class.getName()).build()).run();
+    }
+
+    /** Compiled once, fire times into a reused array: no parsing or allocation per occurrence. */
+    @Benchmark
+    @OperationsPerInvocation(OCCURRENCES)
+    public long[] compiledNextFireTimes() {
+        CronTrigger.compile(EXPRESSION).nextFireTimes(start, fireTimes);
+        return fireTimes;
+    }
+
+    /** Compiled once, stepping through Joda LocalDateTimes. */
+    @Benchmark
+    @OperationsPerInvocation(OCCURRENCES)
+    public LocalDateTime compiledNextFireTimeAfter() {
+        CronTrigger trigger = CronTrigger.compile(EXPRESSION);
+        LocalDateTime fireTime = new LocalDateTime(start, DateTimeZone.UTC);
+        for (int i=0; i < OCCURRENCES; i++) {
+            fireTime = trigger.nextFireTimeAfter(fireTime);
+        }
+        return fireTime;
+    }
+
+    /** The expression re-parsed for every occurrence, as callers did without the cache. */
+    @Benchmark
+    @OperationsPerInvocation(OCCURRENCES)
+    public long parsedEachTime() {
+        long fireTime = start;
+        for (int i=0; i < OCCURRENCES; i++) {
+            fireTime = new CronTrigger(EXPRESSION).nextFireTime(fireTime);
+        }
+        return fireTime;
+    }
+}
@@ -0,0 +1,131 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.SurveysApi;
+import org.sagebionetworks.bridge.rest.model.GuidCreatedOnVersionHolder;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.Survey;
+import org.sagebionetworks.bridge.sdk.integration.TestUserHelper.TestUser;
+
+/**
+ * Measures createSurvey, getSurvey and publishSurvey latency, and the client heap taken by a retrieved survey, as
+ * surveys grow (see TestSurvey.getLargeSurvey). Results are logged as CSV rows for plotting.
+ *
+ * Heap use is estimated by holding several retrieved copies of the survey and comparing used heap before and after,
+ * with a GC each time; treat it as an approximation.
+ *
+ * Configure with system properties: largeSurvey.questionCounts (comma-separated), largeSurvey.optionsPerQuestion,
+ * largeSurvey.rulesPerQuestion, largeSurvey.repetitions (surveys created per size), largeSurvey.heapCopies.
+ */
+@Category(LoadTest.class)
+public class LargeSurveyLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(LargeSurveyLoadTest.class);
+
+    private static final String QUESTION_COUNTS = System.getProperty("largeSurvey.questionCounts", "10,100,500");
+    private static final int OPTIONS_PER_QUESTION = Integer.getInteger("largeSurvey.optionsPerQuestion", 20);
+    private static final int RULES_PER_QUESTION = Integer.getInteger("largeSurvey.rulesPerQuestion", 1);
+    private static final int REPETITIONS = Integer.getInteger("largeSurvey.repetitions", 3);
+    private static final int HEAP_COPIES = Integer.getInteger("largeSurvey.heapCopies", 20);
+
+    private TestUser developer;
+    private List<GuidCreatedOnVersionHolder> surveysToDelete;
+
+    @Before
+    public void before() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(LargeSurveyLoadTest.class, false, Role.DEVELOPER);
+        surveysToDelete = new ArrayList<>();
+    }
+
+    @After
+    public void after() throws Exception {
+        try {
+            SurveysApi adminSurveysApi = TestUserHelper.getSignedInAdmin().getClient(SurveysApi.class);
+            for (GuidCreatedOnVersionHolder keys : surveysToDelete) {
+                try {
+                    adminSurveysApi.deleteSurvey(keys.getGuid(), keys.getCreatedOn(), true).execute();
+                } catch (RuntimeException e) {
+                    LOG.error("Error deleting survey=" + keys + ": " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            if (developer != null) {
+                developer.signOutAndDeleteUser();
+            }
+        }
+    }
+
+    @Test
+    public void largeSurveyScaling() throws Exception {
+        SurveysApi surveysApi = developer.getClient(SurveysApi.class);
+
+        LOG.info("questions,options,rules,jsonBytes,createP50Millis,getP50Millis,publishP50Millis,heapBytesPerCopy,"
+                + "errors");
+        for (String countString : QUESTION_COUNTS.split(",")) {
+            int questionCount = Integer.parseInt(countString.trim());
+            int ruleCount = questionCount * RULES_PER_QUESTION;
+            LatencyRecorder creates = new LatencyRecorder("createSurvey");
+            LatencyRecorder gets = new LatencyRecorder("getSurvey");
+            LatencyRecorder publishes = new LatencyRecorder("publishSurvey");
+            int jsonBytes = 0;
+            GuidCreatedOnVersionHolder lastKeys = null;
+
+            for (int i=0; i < REPETITIONS; i++) {
+                Survey survey = TestSurvey.getLargeSurvey(LargeSurveyLoadTest.class, questionCount,
+                        OPTIONS_PER_QUESTION, ruleCount);
+                jsonBytes = RestUtils.GSON.toJson(survey).getBytes(UTF_8).length;
+
+                GuidCreatedOnVersionHolder keys = creates.time(() -> surveysApi.createSurvey(survey).execute()
+                        .body());
+                if (keys == null) {
+                    continue;
+                }
+                surveysToDelete.add(keys);
+                gets.time(() -> surveysApi.getSurvey(keys.getGuid(), keys.getCreatedOn()).execute().body());
+                publishes.time(() -> surveysApi.publishSurvey(keys.getGuid(), keys.getCreatedOn(), false)
+                        .execute().body());
+                lastKeys = keys;
+            }
+            long heapBytesPerCopy = (lastKeys == null) ? 0 : measureHeapPerCopy(surveysApi, lastKeys);
+
+            int errors = creates.getErrorCount() + gets.getErrorCount() + publishes.getErrorCount();
+            LOG.info(String.format("%d,%d,%d,%d,%.1f,%.1f,%.1f,%d,%d", questionCount, OPTIONS_PER_QUESTION,
+                    ruleCount, jsonBytes, creates.getPercentileMillis(50), gets.getPercentileMillis(50),
+                    publishes.getPercentileMillis(50), heapBytesPerCopy, errors));
+            assertEquals("Requests failed: " + creates.getErrorCounts() + gets.getErrorCounts()
+                    + publishes.getErrorCounts(), 0, errors);
+        }
+    }
+
+    private long measureHeapPerCopy(SurveysApi surveysApi, GuidCreatedOnVersionHolder keys) throws Exception {
+        List<Survey> copies = new ArrayList<>();
+        // Fetch once first so one-time costs (class loading, connection setup) aren't counted.
+        surveysApi.getSurvey(keys.getGuid(), keys.getCreatedOn()).execute().body();
+        long before = usedHeap();
+        for (int i=0; i < HEAP_COPIES; i++) {
+            copies.add(surveysApi.getSurvey(keys.getGuid(), keys.getCreatedOn()).execute().body());
+        }
+        long after = usedHeap();
+        // Keep the copies reachable until after the measurement.
+        return (after - before) / Math.max(1, copies.size());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
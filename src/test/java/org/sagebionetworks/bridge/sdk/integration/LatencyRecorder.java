@@ -0,0 +1,119 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.sagebionetworks.bridge.rest.exceptions.BridgeSDKException;
+
+/**
+ * Thread-safe recorder of request latencies and failures for load tests. Failures are counted by exception class, so
+ * expected failures (e.g. ConsentRequiredException) can be told apart from real errors.
+ */
+public class LatencyRecorder {
+
+    private final String name;
+    private final Map<String, Integer> errorCounts = new TreeMap<>();
+    private long[] latencies = new long[1024];
+    private int count;
+    private long firstStartNanos = Long.MAX_VALUE;
+    private long lastEndNanos = Long.MIN_VALUE;
+
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    /** Run the call, recording its latency, or its failure if it throws. Failures are returned as null. */
+    public <T> T time(Callable<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            recordSuccess(start, System.nanoTime());
+            return result;
+        } catch (Exception e) {
+            recordFailure(start, System.nanoTime(), e);
+            return null;
+        }
+    }
+
+    /** Like {@link #time(Callable)}, but propagates the failure after recording it. */
+    public <T> T timeOrThrow(Callable<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            recordSuccess(start, System.nanoTime());
+            return result;
+        } catch (RuntimeException e) {
+            recordFailure(start, System.nanoTime(), e);
+            throw e;
+        } catch (Exception e) {
+            recordFailure(start, System.nanoTime(), e);
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+    }
+
+    public synchronized void recordSuccess(long startNanos, long endNanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = endNanos - startNanos;
+        recordWindow(startNanos, endNanos);
+    }
+
+    public synchronized void recordFailure(long startNanos, long endNanos, Throwable error) {
+        errorCounts.merge(error.getClass().getSimpleName(), 1, Integer::sum);
+        recordWindow(startNanos, endNanos);
+    }
+
+    public synchronized int getSuccessCount() {
+        return count;
+    }
+
+    public synchronized int getErrorCount() {
+        return errorCounts.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public synchronized Map<String, Integer> getErrorCounts() {
+        return new TreeMap<>(errorCounts);
+    }
+
+    public synchronized double getErrorRate() {
+        int total = count + getErrorCount();
+        return (total == 0) ? 0.0 : (double) getErrorCount() / total;
+    }
+
+    /** Latency in milliseconds at the given percentile (0-100) of successful calls. */
+    public synchronized double getPercentileMillis(double percentile) {
+        if (count == 0) {
+            return 0.0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        index = Math.max(0, Math.min(count - 1, index));
+        return sorted[index] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /** Calls (successful or not) per second, over the span from the first call's start to the last call's end. */
+    public synchronized double getThroughputPerSecond() {
+        int total = count + getErrorCount();
+        if (total == 0 || lastEndNanos <= firstStartNanos) {
+            return 0.0;
+        }
+        return total / ((lastEndNanos - firstStartNanos) / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public synchronized String summary() {
+        return String.format("%s: n=%d errors=%d (%.2f%%) p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms "
+                + "throughput=%.1f/s errorsByType=%s", name, count, getErrorCount(), getErrorRate() * 100,
+                getPercentileMillis(50), getPercentileMillis(90), getPercentileMillis(99),
+                getPercentileMillis(100), getThroughputPerSecond(), errorCounts);
+    }
+
+    private void recordWindow(long startNanos, long endNanos) {
+        firstStartNanos = Math.min(firstStartNanos, startNanos);
+        lastEndNanos = Math.max(lastEndNanos, endNanos);
+    }
+}
@@ -0,0 +1,9 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+/**
+ * JUnit category for load tests and benchmarks. These are excluded from the default build; run them with
+ * -DjunitCategory=loadTests.
+ */
+public interface LoadTest {
+
+}
@@ -0,0 +1,258 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.NotificationsApi;
+import org.sagebionetworks.bridge.rest.exceptions.EntityNotFoundException;
+import org.sagebionetworks.bridge.rest.model.GuidHolder;
+import org.sagebionetworks.bridge.rest.model.NotificationRegistration;
+import org.sagebionetworks.bridge.rest.model.NotificationTopic;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.SubscriptionRequest;
+import org.sagebionetworks.bridge.sdk.integration.TestUserHelper.TestUser;
+
+/**
+ * Measures how notification topics scale with topic count. Topics are created concurrently in batches until the
+ * study has each of the configured counts (on top of any it already has); at each count, logs createNotificationTopic
+ * latency and throughput for the batch, and latency and payload size of getNotificationTopics and
+ * getNotificationTopic, as CSV rows. Finally logs deleteNotificationTopic for all of them.
+ *
+ * A second test measures subscribing: it signs in a number of consented participants, registers a device for each
+ * with createNotificationRegistration, and subscribes every registration to a set of topics concurrently. Both calls
+ * are logged as CSV rows with the subscriber count, topics per subscriber, and the number of calls that succeeded.
+ * Registration needs push notifications to be configured for the study; if the first registration fails, the test is
+ * skipped.
+ *
+ * Configure with system properties: topicScale.topicCounts (comma-separated, ascending), topicScale.threads,
+ * topicScale.repetitions, topicScale.subscribers, topicScale.subscribedTopics.
+ */
+@Category(LoadTest.class)
+public class NotificationTopicScaleLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationTopicScaleLoadTest.class);
+
+    private static final String TOPIC_COUNTS = System.getProperty("topicScale.topicCounts", "10,100,500");
+    private static final int THREADS = Integer.getInteger("topicScale.threads", 10);
+    private static final int REPETITIONS = Integer.getInteger("topicScale.repetitions", 5);
+    private static final int SUBSCRIBERS = Integer.getInteger("topicScale.subscribers", 50);
+    private static final int SUBSCRIBED_TOPICS = Integer.getInteger("topicScale.subscribedTopics", 10);
+
+    private TestUser developer;
+    private List<String> topicGuids;
+    private List<TestUser> participants;
+    // Registration guid by participant, so registrations can be deleted before the participants.
+    private Map<TestUser, String> registrations;
+
+    @Before
+    public void before() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(NotificationTopicScaleLoadTest.class, false, Role.DEVELOPER);
+        topicGuids = Collections.synchronizedList(new ArrayList<>());
+        participants = new ArrayList<>();
+        registrations = new ConcurrentHashMap<>();
+    }
+
+    @After
+    public void after() throws Exception {
+        try {
+            for (Map.Entry<TestUser, String> entry : registrations.entrySet()) {
+                try {
+                    entry.getKey().getClient(ForConsentedUsersApi.class)
+                            .deleteNotificationRegistration(entry.getValue()).execute();
+                } catch (RuntimeException e) {
+                    LOG.error("Error deleting registration=" + entry.getValue() + ": " + e.getMessage(), e);
+                }
+            }
+            TestUserHelper.deleteUsers(participants);
+            NotificationsApi notificationsApi = developer.getClient(NotificationsApi.class);
+            for (String guid : topicGuids) {
+                try {
+                    notificationsApi.deleteNotificationTopic(guid).execute();
+                } catch (EntityNotFoundException e) {
+                    // Already deleted by the test.
+                }
+            }
+        } finally {
+            if (developer != null) {
+                developer.signOutAndDeleteUser();
+            }
+        }
+    }
+
+    @Test
+    public void topicScaling() throws Exception {
+        NotificationsApi notificationsApi = developer.getClient(NotificationsApi.class);
+        String runId = Tests.randomIdentifier(NotificationTopicScaleLoadTest.class);
+
+        LOG.info("topics,call,items,payloadBytes,p50Millis,p90Millis,maxMillis,perSecond,errors");
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (String countString : TOPIC_COUNTS.split(",")) {
+                int topicCount = Integer.parseInt(countString.trim());
+
+                LatencyRecorder creates = new LatencyRecorder("createNotificationTopic");
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i=topicGuids.size(); i < topicCount; i++) {
+                    NotificationTopic topic = new NotificationTopic().name(runId + " topic " + i)
+                            .description("Broadcast reminders for cohort " + i);
+                    futures.add(executor.submit(() -> {
+                        GuidHolder keys = creates.time(() -> notificationsApi.createNotificationTopic(topic)
+                                .execute().body());
+                        if (keys != null) {
+                            topicGuids.add(keys.getGuid());
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                log(topicCount, "createNotificationTopic", creates, futures.size(), 0);
+                assertEquals("Creates failed: " + creates.getErrorCounts(), 0, creates.getErrorCount());
+
+                List<NotificationTopic> topics = measure(topicCount, "getNotificationTopics",
+                        () -> notificationsApi.getNotificationTopics().execute().body().getItems());
+                assertTrue("Topics missing from list", topics.size() >= topicCount);
+                String guid = topicGuids.get(0);
+                measure(topicCount, "getNotificationTopic",
+                        () -> notificationsApi.getNotificationTopic(guid).execute().body());
+            }
+
+            LatencyRecorder deletes = new LatencyRecorder("deleteNotificationTopic");
+            List<Future<?>> futures = new ArrayList<>();
+            for (String guid : new ArrayList<>(topicGuids)) {
+                futures.add(executor.submit(() -> {
+                    if (deletes.time(() -> notificationsApi.deleteNotificationTopic(guid).execute()) != null) {
+                        topicGuids.remove(guid);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            log(futures.size(), "deleteNotificationTopic", deletes, futures.size(), 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void topicSubscription() throws Exception {
+        NotificationsApi notificationsApi = developer.getClient(NotificationsApi.class);
+        String runId = Tests.randomIdentifier(NotificationTopicScaleLoadTest.class);
+        for (int i=0; i < SUBSCRIBED_TOPICS; i++) {
+            NotificationTopic topic = new NotificationTopic().name(runId + " topic " + i)
+                    .description("Broadcast reminders for cohort " + i);
+            topicGuids.add(notificationsApi.createNotificationTopic(topic).execute().body().getGuid());
+        }
+        participants.addAll(TestUserHelper.createAndSignInUsers(NotificationTopicScaleLoadTest.class, true,
+                SUBSCRIBERS, THREADS));
+
+        // Skip, rather than fail, when the study can't create push endpoints.
+        LatencyRecorder registers = new LatencyRecorder("createNotificationRegistration");
+        assumeTrue("Push notifications are not available for this study: " + registers.getErrorCounts(),
+                register(registers, participants.get(0)));
+
+        LOG.info("subscribers,topicsPerSubscriber,call,succeeded,p50Millis,p90Millis,maxMillis,perSecond,errors");
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (TestUser participant : participants.subList(1, participants.size())) {
+                futures.add(executor.submit(() -> register(registers, participant)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            logSubscription("createNotificationRegistration", registers, registrations.size());
+            assertEquals("Registrations failed: " + registers.getErrorCounts(), 0, registers.getErrorCount());
+
+            SubscriptionRequest request = new SubscriptionRequest();
+            request.setTopicGuids(new ArrayList<>(topicGuids));
+            LatencyRecorder subscribes = new LatencyRecorder("subscribeToTopics");
+            AtomicInteger subscribed = new AtomicInteger();
+            futures.clear();
+            for (Map.Entry<TestUser, String> entry : registrations.entrySet()) {
+                ForConsentedUsersApi usersApi = entry.getKey().getClient(ForConsentedUsersApi.class);
+                String registrationGuid = entry.getValue();
+                futures.add(executor.submit(() -> {
+                    if (subscribes.time(() -> usersApi.subscribeToTopics(registrationGuid, request).execute())
+                            != null) {
+                        subscribed.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            logSubscription("subscribeToTopics", subscribes, subscribed.get());
+            assertEquals("Subscriptions failed: " + subscribes.getErrorCounts(), 0, subscribes.getErrorCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Registers a device for the participant, with a random 64-hex-digit APNS token. Returns false if it failed.
+    private boolean register(LatencyRecorder registers, TestUser participant) {
+        NotificationRegistration registration = new NotificationRegistration();
+        registration.setDeviceId(UUID.randomUUID().toString().replace("-", "")
+                + UUID.randomUUID().toString().replace("-", ""));
+        registration.setOsName("iPhone OS");
+        ForConsentedUsersApi usersApi = participant.getClient(ForConsentedUsersApi.class);
+        GuidHolder keys = registers.time(() -> usersApi.createNotificationRegistration(registration)
+                .execute().body());
+        if (keys == null) {
+            return false;
+        }
+        registrations.put(participant, keys.getGuid());
+        return true;
+    }
+
+    private <T> T measure(int topicCount, String call, Callable<T> request) {
+        LatencyRecorder recorder = new LatencyRecorder(call);
+        T result = null;
+        for (int i=0; i < REPETITIONS; i++) {
+            T response = recorder.time(request);
+            if (response != null) {
+                result = response;
+            }
+        }
+        int items = (result instanceof List) ? ((List<?>) result).size() : (result == null ? 0 : 1);
+        int payloadBytes = (result == null) ? 0 : RestUtils.GSON.toJson(result).getBytes(UTF_8).length;
+        log(topicCount, call, recorder, items, payloadBytes);
+        assertEquals(call + " failed: " + recorder.getErrorCounts(), 0, recorder.getErrorCount());
+        return result;
+    }
+
+    private void logSubscription(String call, LatencyRecorder recorder, int succeeded) {
+        LOG.info(String.format("%d,%d,%s,%d,%.1f,%.1f,%.1f,%.1f,%d", participants.size(), SUBSCRIBED_TOPICS, call,
+                succeeded, recorder.getPercentileMillis(50), recorder.getPercentileMillis(90),
+                recorder.getPercentileMillis(100), recorder.getThroughputPerSecond(), recorder.getErrorCount()));
+    }
+
+    private static void log(int topicCount, String call, LatencyRecorder recorder, int items, int payloadBytes) {
+        LOG.info(String.format("%d,%s,%d,%d,%.1f,%.1f,%.1f,%.1f,%d", topicCount, call, items, payloadBytes,
+                recorder.getPercentileMillis(50), recorder.getPercentileMillis(90), recorder.getPercentileMillis(100),
+                recorder.getThroughputPerSecond(), recorder.getErrorCount()));
+    }
+}
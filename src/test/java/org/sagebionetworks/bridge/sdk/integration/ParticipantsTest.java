@@ -342,17 +342,21 @@ public class ParticipantsTest {
             String userId = user.getSession().getId();
 
             // Now ask for something, so activities are generated
-            ScheduledActivityList activities = usersApi.getScheduledActivities("+00:00", 4, null).execute().body();
+            ScheduledActivityTracker tracker = new ScheduledActivityTracker(usersApi, 10);
+            ScheduledActivityList activities = tracker.getScheduledActivities("+00:00", 4, null);
             
             // Verify there is more than one activity
             int count = activities.getItems().size();
             assertTrue(count > 1);
 
-            // Finish one of them so there is one less in the user's API
+            // Finish one of them so there is one less in the user's API. Only that activity is sent.
             ScheduledActivity finishMe = activities.getItems().get(0);
             finishMe.setStartedOn(DateTime.now());
             finishMe.setFinishedOn(DateTime.now());
-            usersApi.updateScheduledActivities(activities.getItems()).execute();
+            assertEquals(1, tracker.updateChangedActivities(activities.getItems()));
+            assertTrue(tracker.getBytesSaved() > 0);
+            assertEquals(0, tracker.updateChangedActivities(activities.getItems()));
+            assertEquals(1, tracker.getUpdateCallCount());
             
             // Finished task is now no longer in the list the user sees
             activities = usersApi.getScheduledActivities("+00:00", 4, null).execute().body();
@@ -0,0 +1,163 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.SchedulesApi;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.Schedule;
+import org.sagebionetworks.bridge.rest.model.SchedulePlan;
+import org.sagebionetworks.bridge.rest.model.ScheduledActivity;
+import org.sagebionetworks.bridge.sdk.integration.TestUserHelper.TestUser;
+
+/**
+ * Many users repeatedly finish the activity of a persistent schedule (Tests.getPersistentSchedulePlan) and immediately
+ * re-read their scheduled activities. Finishing the activity fires the "task:CCC:finished" event, which should replace
+ * it with a new instance. Measures the time from sending the update to seeing the new instance, and flags
+ * regeneration that grows without bound: each read should show exactly one unfinished instance.
+ *
+ * The schedule also listens for enrollment, so the first instance exists before anything has been finished.
+ *
+ * Configure with system properties: persistentFanout.users, persistentFanout.iterations,
+ * persistentFanout.visibilityTimeoutMillis.
+ */
+@Category(LoadTest.class)
+public class PersistentActivityFanoutLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(PersistentActivityFanoutLoadTest.class);
+
+    private static final int USERS = Integer.getInteger("persistentFanout.users", 20);
+    private static final int ITERATIONS = Integer.getInteger("persistentFanout.iterations", 10);
+    private static final long VISIBILITY_TIMEOUT_MILLIS = Long.getLong("persistentFanout.visibilityTimeoutMillis",
+            10000L);
+    private static final long POLL_INTERVAL_MILLIS = 100L;
+    private static final int SETUP_THREADS = 10;
+    private static final String OFFSET = "+00:00";
+
+    private TestUser developer;
+    private List<TestUser> users;
+    private String planGuid;
+    private String taskIdentifier;
+
+    @Before
+    public void before() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(PersistentActivityFanoutLoadTest.class, true, Role.DEVELOPER);
+        SchedulePlan plan = Tests.getPersistentSchedulePlan();
+        Schedule schedule = Tests.getSimpleSchedule(plan);
+        taskIdentifier = schedule.getActivities().get(0).getTask().getIdentifier();
+        schedule.setEventId(schedule.getEventId() + "," + ScheduleExpander.ENROLLMENT_EVENT);
+        planGuid = developer.getClient(SchedulesApi.class).createSchedulePlan(plan).execute().body().getGuid();
+
+        users = TestUserHelper.createAndSignInUsers(PersistentActivityFanoutLoadTest.class, true, USERS,
+                SETUP_THREADS);
+    }
+
+    @After
+    public void after() throws Exception {
+        try {
+            if (users != null) {
+                TestUserHelper.deleteUsers(users);
+            }
+            if (planGuid != null) {
+                developer.getClient(SchedulesApi.class).deleteSchedulePlan(planGuid).execute();
+            }
+        } finally {
+            if (developer != null) {
+                developer.signOutAndDeleteUser();
+            }
+        }
+    }
+
+    @Test
+    public void finishAndReread() throws Exception {
+        LatencyRecorder updates = new LatencyRecorder("finish persistent activity");
+        LatencyRecorder visibility = new LatencyRecorder("event to visibility");
+        AtomicInteger timeouts = new AtomicInteger();
+        AtomicInteger maxVisible = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(USERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (TestUser user : users) {
+                ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+                futures.add(executor.submit(() -> {
+                    for (int i=0; i < ITERATIONS; i++) {
+                        List<ScheduledActivity> current = getPersistentActivities(usersApi);
+                        maxVisible.accumulateAndGet(current.size(), Math::max);
+                        if (current.isEmpty()) {
+                            timeouts.incrementAndGet();
+                            return null;
+                        }
+                        ScheduledActivity activity = current.get(0);
+                        activity.setStartedOn(DateTime.now());
+                        activity.setFinishedOn(DateTime.now());
+
+                        long start = System.nanoTime();
+                        updates.timeOrThrow(() -> usersApi.updateScheduledActivities(Lists.newArrayList(activity))
+                                .execute());
+                        if (!awaitNewInstance(usersApi, activity.getGuid(), start, visibility)) {
+                            timeouts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        LOG.info(updates.summary());
+        LOG.info(visibility.summary());
+        LOG.info("Instances not visible within " + VISIBILITY_TIMEOUT_MILLIS + "ms: " + timeouts.get()
+                + "; most unfinished instances seen at once: " + maxVisible.get());
+
+        assertEquals("Updates failed: " + updates.getErrorCounts(), 0, updates.getErrorCount());
+        assertEquals("New instances did not appear", 0, timeouts.get());
+        assertTrue("Persistent activities are accumulating: saw " + maxVisible.get() + " unfinished instances",
+                maxVisible.get() <= 1);
+    }
+
+    // Poll until an unfinished instance other than the one just finished appears.
+    private boolean awaitNewInstance(ForConsentedUsersApi usersApi, String finishedGuid, long startNanos,
+            LatencyRecorder visibility) throws Exception {
+        long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(VISIBILITY_TIMEOUT_MILLIS);
+        while (System.nanoTime() < deadline) {
+            List<ScheduledActivity> activities = getPersistentActivities(usersApi);
+            if (activities.stream().anyMatch(activity -> !activity.getGuid().equals(finishedGuid))) {
+                visibility.recordSuccess(startNanos, System.nanoTime());
+                return true;
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+        return false;
+    }
+
+    private List<ScheduledActivity> getPersistentActivities(ForConsentedUsersApi usersApi) throws Exception {
+        return usersApi.getScheduledActivities(OFFSET, 1, null).execute().body().getItems().stream()
+                .filter(activity -> activity.getActivity().getTask() != null
+                        && taskIdentifier.equals(activity.getActivity().getTask().getIdentifier())
+                        && activity.getFinishedOn() == null)
+                .collect(Collectors.toList());
+    }
+}
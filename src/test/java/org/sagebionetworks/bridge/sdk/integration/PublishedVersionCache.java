@@ -0,0 +1,95 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+
+/**
+ * Caches versions of a document that never change once created, keyed by (id, createdOn), along with a pointer from
+ * each id to the createdOn of its published version. Versions are bounded in number, least recently used evicted
+ * first; which version is published can change, so pointers expire after a short TTL.
+ *
+ * Values are stored as given. Callers that hand out mutable models should copy them on the way in and out.
+ */
+public class PublishedVersionCache<T> {
+
+    private final Cache<String, T> versions;
+    private final Cache<String, Long> publishedPointers;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxVersions the most versions to keep
+     * @param pointerTtl how long to trust which version of a document is the published one
+     */
+    public PublishedVersionCache(int maxVersions, Duration pointerTtl) {
+        checkArgument(maxVersions > 0);
+        checkNotNull(pointerTtl);
+        this.versions = CacheBuilder.newBuilder().maximumSize(maxVersions).recordStats().build();
+        this.publishedPointers = CacheBuilder.newBuilder()
+                .expireAfterWrite(pointerTtl.getMillis(), TimeUnit.MILLISECONDS).build();
+    }
+
+    /** The cached version, or null (counted as a miss) if the caller must fetch it. */
+    public T getVersion(String id, DateTime createdOn) {
+        return count(versions.getIfPresent(key(id, createdOn.getMillis())));
+    }
+
+    /** The cached published version, or null (counted as a miss) if the pointer or the version isn't cached. */
+    public T getPublishedVersion(String id) {
+        Long createdOn = publishedPointers.getIfPresent(id);
+        return count((createdOn == null) ? null : versions.getIfPresent(key(id, createdOn)));
+    }
+
+    public void putVersion(String id, DateTime createdOn, T value) {
+        versions.put(key(id, createdOn.getMillis()), value);
+    }
+
+    /** Cache this version and point to it as the published one. */
+    public void putPublishedVersion(String id, DateTime createdOn, T value) {
+        putVersion(id, createdOn, value);
+        publishedPointers.put(id, createdOn.getMillis());
+    }
+
+    public void invalidatePublishedVersion(String id) {
+        publishedPointers.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        versions.invalidateAll();
+        publishedPointers.invalidateAll();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return versions.stats().evictionCount();
+    }
+
+    private T count(T value) {
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    // DateTimes in different zones can represent the same instant, so key on millis.
+    private static String key(String id, long createdOn) {
+        return id + ":" + createdOn;
+    }
+}
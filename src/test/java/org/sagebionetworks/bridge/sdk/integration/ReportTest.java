@@ -5,6 +5,7 @@ import org.joda.time.LocalDate;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.sagebionetworks.bridge.rest.RestUtils;
 import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
 import org.sagebionetworks.bridge.rest.api.ParticipantsApi;
 import org.sagebionetworks.bridge.rest.api.ReportsApi;
@@ -240,6 +241,47 @@ public class ReportTest {
         }
     }
 
+    @Test
+    public void reportWriterKeepsLastWritePerDate() throws Exception {
+        TestUser developer = TestUserHelper.createAndSignInUser(ReportTest.class, true, Role.DEVELOPER);
+        ReportsApi devReportClient = developer.getClient(ReportsApi.class);
+        try {
+            try (ReportWriter writer = new ReportWriter(devReportClient, 2)) {
+                writer.writeStudyRecord(reportId, REPORT1);
+                writer.writeStudyRecord(reportId, REPORT2);
+                writer.writeStudyRecord(reportId, REPORT3);
+
+                // Rewrite the first date; whether or not it's coalesced, the last write should win.
+                JsonObject rewritten = new JsonObject();
+                rewritten.addProperty("value", "rewritten");
+                ReportData report = new ReportData();
+                report.setDate(TIME1);
+                report.setData(rewritten);
+                writer.writeStudyRecord(reportId, report);
+                writer.flush();
+
+                assertEquals(0, writer.getFailureCount());
+                assertEquals(4, writer.getSentCount() + writer.getCoalescedCount());
+            }
+
+            ReportDataList results = devReportClient.getStudyReportRecords(reportId, SEARCH_START_DATE, SEARCH_END_DATE)
+                    .execute().body();
+            assertEquals((Integer) 3, results.getTotal());
+            for (ReportData data : results.getItems()) {
+                if (data.getDate().equals(TIME1)) {
+                    JsonObject json = RestUtils.GSON.toJsonTree(data.getData()).getAsJsonObject();
+                    assertEquals("rewritten", json.get("value").getAsString());
+                }
+            }
+        } finally {
+            try {
+                devReportClient.deleteAllStudyReportRecords(reportId).execute();
+            } finally {
+                developer.signOutAndDeleteUser();
+            }
+        }
+    }
+
     @Test
     public void canMakeStudyReportPublic() throws Exception {
         TestUser developer = TestUserHelper.createAndSignInUser(ReportTest.class, true, Role.DEVELOPER);
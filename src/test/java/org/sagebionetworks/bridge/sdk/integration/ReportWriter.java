@@ -0,0 +1,215 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ReportsApi;
+import org.sagebionetworks.bridge.rest.exceptions.BridgeSDKException;
+import org.sagebionetworks.bridge.rest.model.ReportData;
+
+/**
+ * Writes study and participant report records with up to a fixed number of requests in flight. Writes return as soon
+ * as the record is queued; once the window is full they block until a request completes, which keeps a fast producer
+ * from queueing unbounded work (backpressure).
+ *
+ * Records are sent on one of window lanes chosen by (userId, reportId, date), so writes to the same record are sent in
+ * order. A write to a record that is still queued replaces the queued data instead of sending a second request (the
+ * server keeps only the last record per date anyway). Network errors and 5xx/429 responses are retried with jittered
+ * exponential backoff; records that still fail are counted and logged, and do not stop the writer.
+ *
+ * Call {@link #flush()} to wait for everything written so far, and {@link #close()} when done.
+ */
+public class ReportWriter implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ReportWriter.class);
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BASE_DELAY_MILLIS = 100L;
+    private static final long MAX_DELAY_MILLIS = 5000L;
+
+    private static final class Pending {
+        private final String key;
+        private final String userId;
+        private final String reportId;
+        private ReportData data;
+        Pending(String key, String userId, String reportId, ReportData data) {
+            this.key = key;
+            this.userId = userId;
+            this.reportId = reportId;
+            this.data = data;
+        }
+    }
+
+    private final ReportsApi reportsApi;
+    private final int window;
+    private final Semaphore permits;
+    private final ExecutorService[] lanes;
+    // Records queued but not yet sent, by key. Guarded by itself.
+    private final Map<String, Pending> queued = new HashMap<>();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile boolean closed;
+
+    /** @param window the most records queued or in flight at once */
+    public ReportWriter(ReportsApi reportsApi, int window) {
+        checkNotNull(reportsApi);
+        checkArgument(window > 0, "window must be positive");
+        this.reportsApi = reportsApi;
+        this.window = window;
+        this.permits = new Semaphore(window);
+        this.lanes = new ExecutorService[window];
+        for (int i=0; i < window; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor();
+        }
+    }
+
+    public void writeStudyRecord(String reportId, ReportData data) {
+        write(null, reportId, data);
+    }
+
+    public void writeParticipantRecord(String userId, String reportId, ReportData data) {
+        checkNotNull(userId);
+        write(userId, reportId, data);
+    }
+
+    /** Block until every record written so far has been sent, or has failed. */
+    public void flush() {
+        try {
+            permits.acquire(window);
+            permits.release(window);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BridgeSDKException("Interrupted while flushing reports", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        flush();
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    /** Requests that succeeded. */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /** Writes that replaced the data of a record still queued, so needed no request of their own. */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    /** Records that could not be written after all retries. */
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    private void write(String userId, String reportId, ReportData data) {
+        checkNotNull(reportId);
+        checkNotNull(data);
+        checkNotNull(data.getDate());
+        checkState(!closed, "ReportWriter is closed");
+        String key = (userId == null ? "" : userId) + ":" + reportId + ":" + data.getDate();
+        if (coalesce(key, data)) {
+            return;
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BridgeSDKException("Interrupted while writing report", e);
+        }
+        Pending pending;
+        synchronized (queued) {
+            // Another writer may have queued this record while we waited for a permit.
+            if (coalesce(key, data)) {
+                permits.release();
+                return;
+            }
+            pending = new Pending(key, userId, reportId, data);
+            queued.put(key, pending);
+        }
+        lanes[Math.floorMod(key.hashCode(), lanes.length)].execute(() -> send(pending));
+    }
+
+    private boolean coalesce(String key, ReportData data) {
+        synchronized (queued) {
+            Pending pending = queued.get(key);
+            if (pending != null) {
+                pending.data = data;
+                coalesced.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private void send(Pending pending) {
+        ReportData data;
+        synchronized (queued) {
+            // From here on, writes to this record queue a new request.
+            queued.remove(pending.key);
+            data = pending.data;
+        }
+        try {
+            for (int attempt=1; ; attempt++) {
+                try {
+                    if (pending.userId == null) {
+                        reportsApi.addStudyReportRecord(pending.reportId, data).execute();
+                    } else {
+                        reportsApi.addParticipantReportRecord(pending.userId, pending.reportId, data).execute();
+                    }
+                    sent.incrementAndGet();
+                    return;
+                } catch (IOException | RuntimeException e) {
+                    if (attempt >= MAX_ATTEMPTS || !isTransient(e)) {
+                        failures.incrementAndGet();
+                        LOG.error("Error writing report record " + pending.key + ": " + e.getMessage(), e);
+                        return;
+                    }
+                    retries.incrementAndGet();
+                    long ceiling = Math.min(MAX_DELAY_MILLIS, BASE_DELAY_MILLIS << (attempt - 1));
+                    TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.incrementAndGet();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static boolean isTransient(Exception e) {
+        if (e instanceof IOException) {
+            return true;
+        }
+        if (e instanceof BridgeSDKException) {
+            int status = ((BridgeSDKException) e).getStatusCode();
+            return status >= 500 || status == 429;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,133 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonObject;
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ReportsApi;
+import org.sagebionetworks.bridge.rest.model.ReportData;
+import org.sagebionetworks.bridge.rest.model.ReportDataList;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.sdk.integration.TestUserHelper.TestUser;
+
+/**
+ * Measures study report write throughput through {@link ReportWriter} as its in-flight window grows. For each window
+ * size, writes daily rows for a number of reports (one row per report per day), rewriting a percentage of rows to
+ * exercise coalescing, then flushes and logs rows submitted per second and requests sent per second as a CSV row (the
+ * difference is the writes saved by coalescing). A window of 1 is equivalent to the blocking writes in ReportTest.
+ * Each report is read back to check that every day was written.
+ *
+ * Configure with system properties: reportWriter.windowSizes (comma-separated), reportWriter.reports,
+ * reportWriter.days, reportWriter.rewritePercent.
+ */
+@Category(LoadTest.class)
+public class ReportWriterLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(ReportWriterLoadTest.class);
+
+    private static final String WINDOW_SIZES = System.getProperty("reportWriter.windowSizes", "1,4,16,64");
+    private static final int REPORTS = Integer.getInteger("reportWriter.reports", 20);
+    private static final int DAYS = Integer.getInteger("reportWriter.days", 100);
+    private static final int REWRITE_PERCENT = Integer.getInteger("reportWriter.rewritePercent", 10);
+    private static final int READ_DAYS = 30;
+    private static final LocalDate START_DATE = LocalDate.parse("2016-01-01");
+
+    private TestUser developer;
+    private List<String> reportsToDelete;
+
+    @Before
+    public void before() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(ReportWriterLoadTest.class, true, Role.DEVELOPER);
+        reportsToDelete = new ArrayList<>();
+    }
+
+    @After
+    public void after() throws Exception {
+        try {
+            ReportsApi reportsApi = developer.getClient(ReportsApi.class);
+            for (String reportId : reportsToDelete) {
+                try {
+                    reportsApi.deleteAllStudyReportRecords(reportId).execute();
+                } catch (RuntimeException e) {
+                    LOG.error("Error deleting report=" + reportId + ": " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            if (developer != null) {
+                developer.signOutAndDeleteUser();
+            }
+        }
+    }
+
+    @Test
+    public void reportWriterThroughput() throws Exception {
+        ReportsApi reportsApi = developer.getClient(ReportsApi.class);
+        Random random = new Random();
+
+        LOG.info("window,rows,sent,coalesced,retries,failures,seconds,rowsSubmittedPerSecond,requestsPerSecond");
+        for (String windowString : WINDOW_SIZES.split(",")) {
+            int window = Integer.parseInt(windowString.trim());
+            List<String> reportIds = new ArrayList<>();
+            for (int i=0; i < REPORTS; i++) {
+                String reportId = Tests.randomIdentifier(ReportWriterLoadTest.class);
+                reportIds.add(reportId);
+                reportsToDelete.add(reportId);
+            }
+
+            int rows = 0;
+            long start = System.nanoTime();
+            try (ReportWriter writer = new ReportWriter(reportsApi, window)) {
+                for (int day=0; day < DAYS; day++) {
+                    for (String reportId : reportIds) {
+                        writer.writeStudyRecord(reportId, row(START_DATE.plusDays(day), day, 0));
+                        rows++;
+                        if (random.nextInt(100) < REWRITE_PERCENT) {
+                            writer.writeStudyRecord(reportId, row(START_DATE.plusDays(day), day, 1));
+                            rows++;
+                        }
+                    }
+                }
+                writer.flush();
+                double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+                LOG.info(String.format("%d,%d,%d,%d,%d,%d,%.2f,%.1f,%.1f", window, rows, writer.getSentCount(),
+                        writer.getCoalescedCount(), writer.getRetryCount(), writer.getFailureCount(), seconds,
+                        rows / seconds, writer.getSentCount() / seconds));
+                assertEquals("Report writes failed", 0, writer.getFailureCount());
+            }
+
+            // The server limits the date range of a query, so read back in chunks.
+            for (String reportId : reportIds) {
+                int total = 0;
+                for (int day=0; day < DAYS; day += READ_DAYS) {
+                    LocalDate endDate = START_DATE.plusDays(Math.min(DAYS, day + READ_DAYS) - 1);
+                    ReportDataList results = reportsApi.getStudyReportRecords(reportId, START_DATE.plusDays(day),
+                            endDate).execute().body();
+                    total += results.getTotal();
+                }
+                assertEquals("Days written for " + reportId, DAYS, total);
+            }
+        }
+    }
+
+    private static ReportData row(LocalDate date, int day, int revision) {
+        JsonObject data = new JsonObject();
+        data.addProperty("day", day);
+        data.addProperty("revision", revision);
+        data.addProperty("count", day * 10 + revision);
+        ReportData report = new ReportData();
+        report.setDate(date);
+        report.setData(data);
+        return report;
+    }
+}
@@ -0,0 +1,213 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.SchedulesApi;
+import org.sagebionetworks.bridge.rest.model.ABTestGroup;
+import org.sagebionetworks.bridge.rest.model.ABTestScheduleStrategy;
+import org.sagebionetworks.bridge.rest.model.Criteria;
+import org.sagebionetworks.bridge.rest.model.CriteriaScheduleStrategy;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.Schedule;
+import org.sagebionetworks.bridge.rest.model.ScheduleCriteria;
+import org.sagebionetworks.bridge.rest.model.ScheduleList;
+import org.sagebionetworks.bridge.rest.model.SchedulePlan;
+import org.sagebionetworks.bridge.rest.model.StudyParticipant;
+import org.sagebionetworks.bridge.sdk.integration.TestUserHelper.TestUser;
+
+/**
+ * Checks how users are actually split across the schedules of an ABTestScheduleStrategy or CriteriaScheduleStrategy
+ * plan, and what schedule assignment costs. Many users fetch getSchedules in parallel; the observed share of each
+ * group is logged with a 95% confidence interval next to its expected share, along with request latency.
+ *
+ * Each group's schedule is given a unique label so it can be told apart from schedules of other plans in the study.
+ *
+ * Configure with system properties: scheduleAssignment.users, scheduleAssignment.threads.
+ */
+@Category(LoadTest.class)
+public class ScheduleAssignmentLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(ScheduleAssignmentLoadTest.class);
+
+    private static final int USERS = Integer.getInteger("scheduleAssignment.users", 500);
+    private static final int THREADS = Integer.getInteger("scheduleAssignment.threads", 20);
+    private static final String GROUP_LABEL_PREFIX = "assignment-group-";
+    private static final double Z_95 = 1.96;
+    private static final List<String> DATA_GROUPS = Lists.newArrayList("sdk-int-1", "sdk-int-2");
+
+    private TestUser developer;
+    private List<TestUser> users;
+    private String planGuid;
+
+    @Before
+    public void before() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(ScheduleAssignmentLoadTest.class, true, Role.DEVELOPER);
+        users = TestUserHelper.createAndSignInUsers(ScheduleAssignmentLoadTest.class, true, USERS, THREADS);
+    }
+
+    @After
+    public void after() throws Exception {
+        try {
+            if (planGuid != null) {
+                developer.getClient(SchedulesApi.class).deleteSchedulePlan(planGuid).execute();
+            }
+            if (users != null) {
+                TestUserHelper.deleteUsers(users);
+            }
+        } finally {
+            if (developer != null) {
+                developer.signOutAndDeleteUser();
+            }
+        }
+    }
+
+    @Test
+    public void abTestScheduleAssignment() throws Exception {
+        SchedulePlan plan = Tests.getABTestSchedulePlan();
+        ABTestScheduleStrategy strategy = (ABTestScheduleStrategy) plan.getStrategy();
+        Map<String, Double> expectedShares = new TreeMap<>();
+        for (int i=0; i < strategy.getScheduleGroups().size(); i++) {
+            ABTestGroup group = strategy.getScheduleGroups().get(i);
+            group.getSchedule().setLabel(GROUP_LABEL_PREFIX + i);
+            expectedShares.put(GROUP_LABEL_PREFIX + i, group.getPercentage() / 100.0);
+        }
+        planGuid = developer.getClient(SchedulesApi.class).createSchedulePlan(plan).execute().body().getGuid();
+
+        analyze("ABTestScheduleStrategy", expectedShares);
+    }
+
+    @Test
+    public void criteriaScheduleAssignment() throws Exception {
+        // Users are spread evenly over: the first data group, the second data group, and no data group. The last
+        // criteria has no requirements and catches users who matched neither of the others.
+        List<ScheduleCriteria> scheduleCriteria = new ArrayList<>();
+        Map<String, Double> expectedShares = new TreeMap<>();
+        for (int i=0; i <= DATA_GROUPS.size(); i++) {
+            Criteria criteria = new Criteria();
+            if (i < DATA_GROUPS.size()) {
+                criteria.setAllOfGroups(Lists.newArrayList(DATA_GROUPS.get(i)));
+            }
+            Schedule schedule = Tests.getSimpleSchedule(Tests.getSimpleSchedulePlan());
+            schedule.setLabel(GROUP_LABEL_PREFIX + i);
+
+            ScheduleCriteria oneCriteria = new ScheduleCriteria();
+            oneCriteria.setCriteria(criteria);
+            oneCriteria.setSchedule(schedule);
+            scheduleCriteria.add(oneCriteria);
+            expectedShares.put(GROUP_LABEL_PREFIX + i, 1.0 / (DATA_GROUPS.size() + 1));
+        }
+        CriteriaScheduleStrategy strategy = new CriteriaScheduleStrategy();
+        strategy.setScheduleCriteria(scheduleCriteria);
+        strategy.setType("CriteriaScheduleStrategy");
+
+        SchedulePlan plan = new SchedulePlan();
+        plan.setLabel("Criteria assignment plan");
+        plan.setStrategy(strategy);
+        planGuid = developer.getClient(SchedulesApi.class).createSchedulePlan(plan).execute().body().getGuid();
+
+        assignDataGroups();
+        analyze("CriteriaScheduleStrategy", expectedShares);
+    }
+
+    private void assignDataGroups() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i=0; i < users.size(); i++) {
+                TestUser user = users.get(i);
+                int groupIndex = i % (DATA_GROUPS.size() + 1);
+                futures.add(executor.submit(() -> {
+                    ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+                    StudyParticipant participant = usersApi.getUsersParticipantRecord().execute().body();
+                    participant.setDataGroups((groupIndex < DATA_GROUPS.size())
+                            ? Lists.newArrayList(DATA_GROUPS.get(groupIndex)) : Lists.newArrayList());
+                    usersApi.updateUsersParticipantRecord(participant).execute();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void analyze(String strategyName, Map<String, Double> expectedShares) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder("getSchedules " + strategyName);
+        Map<String, Integer> counts = new ConcurrentHashMap<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (TestUser user : users) {
+                ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+                futures.add(executor.submit(() -> {
+                    ScheduleList schedules = recorder.time(() -> usersApi.getSchedules().execute().body());
+                    if (schedules != null) {
+                        for (Schedule schedule : schedules.getItems()) {
+                            if (schedule.getLabel() != null && schedule.getLabel().startsWith(GROUP_LABEL_PREFIX)) {
+                                counts.merge(schedule.getLabel(), 1, Integer::sum);
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        LOG.info(recorder.summary());
+
+        int assigned = counts.values().stream().mapToInt(Integer::intValue).sum();
+        for (Map.Entry<String, Double> entry : expectedShares.entrySet()) {
+            int count = counts.getOrDefault(entry.getKey(), 0);
+            double[] interval = wilsonInterval(count, assigned);
+            double expected = entry.getValue();
+            String line = String.format("%s %s: n=%d observed=%.3f 95%%CI=[%.3f, %.3f] expected=%.3f",
+                    strategyName, entry.getKey(), count, (assigned == 0) ? 0.0 : (double) count / assigned,
+                    interval[0], interval[1], expected);
+            if (expected < interval[0] || expected > interval[1]) {
+                LOG.warn(line + " (expected share outside the confidence interval)");
+            } else {
+                LOG.info(line);
+            }
+        }
+        assertEquals("Requests failed: " + recorder.getErrorCounts(), 0, recorder.getErrorCount());
+        assertTrue("No user was assigned a schedule", assigned > 0);
+    }
+
+    /** Wilson score interval for a binomial proportion, which behaves well for small counts and extreme shares. */
+    static double[] wilsonInterval(int successes, int trials) {
+        if (trials == 0) {
+            return new double[] { 0.0, 1.0 };
+        }
+        double p = (double) successes / trials;
+        double z2 = Z_95 * Z_95;
+        double denominator = 1 + z2 / trials;
+        double center = (p + z2 / (2 * trials)) / denominator;
+        double halfWidth = Z_95 * Math.sqrt(p * (1 - p) / trials + z2 / (4.0 * trials * trials)) / denominator;
+        return new double[] { Math.max(0.0, center - halfWidth), Math.min(1.0, center + halfWidth) };
+    }
+}
@@ -0,0 +1,310 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDateTime;
+import org.joda.time.LocalTime;
+import org.joda.time.Period;
+
+import com.google.common.collect.ImmutableList;
+
+import org.sagebionetworks.bridge.rest.model.Activity;
+import org.sagebionetworks.bridge.rest.model.Schedule;
+import org.sagebionetworks.bridge.rest.model.SchedulePlan;
+import org.sagebionetworks.bridge.rest.model.ScheduleType;
+import org.sagebionetworks.bridge.rest.model.SimpleScheduleStrategy;
+
+/**
+ * Expands schedules offline into the activities the server is expected to return from getScheduledActivities, so
+ * tests can assert on exact expectations and load tests can generate expected payloads without a round trip.
+ *
+ * The expansion follows the server's rules: the schedule starts at its triggering event (the first of its event IDs
+ * that has occurred, or enrollment) plus the delay. ONCE and PERSISTENT schedules fire once; RECURRING schedules fire
+ * every interval, or at each cron trigger time. If times are given, each firing is moved to those times of day on
+ * the firing's date. Firings outside the schedule's startsOn/endsOn window, or that have already expired, are
+ * dropped. Firings are returned up to daysAhead days from now (to the end of that day), or beyond that until each
+ * schedule has returned minimumPerSchedule firings.
+ *
+ * Compile a schedule once with {@link #compile(Schedule)} and expand it for many users; compiling parses the
+ * periods, times and cron trigger so that expansion only does date arithmetic.
+ */
+public class ScheduleExpander {
+
+    public static final String ENROLLMENT_EVENT = "enrollment";
+    // Guards against runaway expansion. Expanding a schedule that needs more steps than this throws, rather than
+    // returning a truncated (and wrong) list of activities.
+    private static final int MAX_FIRINGS = 10000;
+
+    /** The state of a single user at the time activities are requested. */
+    public static final class Context {
+        private final DateTimeZone zone;
+        private final DateTime now;
+        private final DateTime endsOn;
+        private final int minimumPerSchedule;
+        private final Map<String, DateTime> events = new HashMap<>();
+
+        /**
+         * @param offset the time zone offset sent with the request, e.g. "+00:00" or "-07:00"
+         * @param enrollment when the user enrolled (consented) in the study
+         */
+        public Context(String offset, DateTime enrollment, DateTime now, int daysAhead, int minimumPerSchedule) {
+            checkNotNull(offset);
+            checkNotNull(enrollment);
+            checkNotNull(now);
+            checkArgument(daysAhead >= 0);
+            checkArgument(minimumPerSchedule >= 0);
+            this.zone = DateTimeZone.forID(offset);
+            this.now = now.withZone(zone);
+            this.endsOn = this.now.plusDays(daysAhead).withTimeAtStartOfDay().plusDays(1).minusMillis(1);
+            this.minimumPerSchedule = minimumPerSchedule;
+            events.put(ENROLLMENT_EVENT, enrollment);
+        }
+
+        /** Record that an event (e.g. "task:AAA:finished") has occurred for this user. */
+        public Context withEvent(String eventId, DateTime occurredOn) {
+            checkNotNull(eventId);
+            checkNotNull(occurredOn);
+            events.put(eventId, occurredOn);
+            return this;
+        }
+
+        public DateTimeZone getZone() {
+            return zone;
+        }
+
+        public DateTime getNow() {
+            return now;
+        }
+
+        public DateTime getEndsOn() {
+            return endsOn;
+        }
+
+        public int getMinimumPerSchedule() {
+            return minimumPerSchedule;
+        }
+    }
+
+    /** An activity the server is expected to schedule. */
+    public static final class ExpectedActivity {
+        private final Activity activity;
+        private final DateTime scheduledOn;
+        private final DateTime expiresOn;
+        private final boolean persistent;
+
+        ExpectedActivity(Activity activity, DateTime scheduledOn, DateTime expiresOn, boolean persistent) {
+            this.activity = activity;
+            this.scheduledOn = scheduledOn;
+            this.expiresOn = expiresOn;
+            this.persistent = persistent;
+        }
+
+        public Activity getActivity() {
+            return activity;
+        }
+
+        /** The task identifier or survey GUID of the activity. */
+        public String getActivityKey() {
+            if (activity.getTask() != null) {
+                return activity.getTask().getIdentifier();
+            } else if (activity.getSurvey() != null) {
+                return activity.getSurvey().getGuid();
+            }
+            return activity.getLabel();
+        }
+
+        public DateTime getScheduledOn() {
+            return scheduledOn;
+        }
+
+        public DateTime getExpiresOn() {
+            return expiresOn;
+        }
+
+        public boolean isPersistent() {
+            return persistent;
+        }
+
+        @Override
+        public String toString() {
+            return "ExpectedActivity [activity=" + getActivityKey() + ", scheduledOn=" + scheduledOn + ", expiresOn="
+                    + expiresOn + ", persistent=" + persistent + "]";
+        }
+    }
+
+    /** A schedule with its periods, times and cron trigger parsed, ready to be expanded for any number of users. */
+    public static final class CompiledSchedule {
+        private final String label;
+        private final ScheduleType type;
+        private final List<String> eventIds;
+        private final Period delay;
+        private final Period interval;
+        private final Period expires;
+        private final List<LocalTime> times;
+        private final CronTrigger cronTrigger;
+        private final DateTime startsOn;
+        private final DateTime endsOn;
+        private final List<Activity> activities;
+
+        CompiledSchedule(Schedule schedule) {
+            checkNotNull(schedule.getScheduleType(), "Schedule has no scheduleType");
+            checkArgument(schedule.getActivities() != null && !schedule.getActivities().isEmpty(),
+                    "Schedule has no activities");
+            this.label = schedule.getLabel();
+            this.type = schedule.getScheduleType();
+            this.eventIds = (schedule.getEventId() == null) ? ImmutableList.of(ENROLLMENT_EVENT)
+                    : ImmutableList.copyOf(schedule.getEventId().trim().split("\\s*,\\s*"));
+            this.delay = parsePeriod(schedule.getDelay());
+            this.interval = parsePeriod(schedule.getInterval());
+            this.expires = parsePeriod(schedule.getExpires());
+            ImmutableList.Builder<LocalTime> timesBuilder = ImmutableList.builder();
+            if (schedule.getTimes() != null) {
+                for (String time : schedule.getTimes()) {
+                    timesBuilder.add(LocalTime.parse(time));
+                }
+            }
+            this.times = timesBuilder.build();
+            this.cronTrigger = (schedule.getCronTrigger() == null) ? null
+                    : CronTrigger.compile(schedule.getCronTrigger());
+            this.startsOn = schedule.getStartsOn();
+            this.endsOn = schedule.getEndsOn();
+            this.activities = ImmutableList.copyOf(schedule.getActivities());
+            checkArgument(type != ScheduleType.RECURRING || interval != null || cronTrigger != null,
+                    "Recurring schedule needs an interval or a cronTrigger");
+        }
+
+        public List<ExpectedActivity> expand(Context context) {
+            checkNotNull(context);
+            List<ExpectedActivity> expected = new ArrayList<>();
+            DateTime eventTime = getEventTime(context);
+            if (eventTime == null) {
+                return expected;
+            }
+            DateTime start = eventTime.withZone(context.zone);
+            if (delay != null) {
+                start = start.plus(delay);
+            }
+            if (type != ScheduleType.RECURRING) {
+                addFirings(expected, context, start, context.minimumPerSchedule, new int[1]);
+            } else if (cronTrigger != null) {
+                expandCron(expected, context, start);
+            } else {
+                expandInterval(expected, context, start);
+            }
+            return expected;
+        }
+
+        private void expandInterval(List<ExpectedActivity> expected, Context context, DateTime start) {
+            int[] firings = new int[1];
+            for (int i=0; i < MAX_FIRINGS; i++) {
+                // Always step from the start, so month intervals don't drift at the end of short months.
+                DateTime date = start.plus(interval.multipliedBy(i));
+                if (!addFirings(expected, context, date, context.minimumPerSchedule, firings)) {
+                    return;
+                }
+            }
+            throw tooManyFirings();
+        }
+
+        private void expandCron(List<ExpectedActivity> expected, Context context, DateTime start) {
+            int[] firings = new int[1];
+            LocalDateTime localTime = start.toLocalDateTime().minusSeconds(1);
+            for (int i=0; i < MAX_FIRINGS; i++) {
+                localTime = cronTrigger.nextFireTimeAfter(localTime);
+                if (localTime == null) {
+                    return;
+                }
+                // Cron triggers fire at their own times of day; times are ignored.
+                if (!addFiring(expected, context, localTime.toDateTime(context.zone), context.minimumPerSchedule,
+                        firings)) {
+                    return;
+                }
+            }
+            throw tooManyFirings();
+        }
+
+        private IllegalStateException tooManyFirings() {
+            return new IllegalStateException("Schedule '" + label + "' did not finish expanding within "
+                    + MAX_FIRINGS + " firings");
+        }
+
+        /**
+         * Add the firings on this date (one per time, or one at the given time if there are no times). Returns false
+         * once no later date can produce firings.
+         */
+        private boolean addFirings(List<ExpectedActivity> expected, Context context, DateTime date, int minimum,
+                int[] firings) {
+            if (times.isEmpty()) {
+                return addFiring(expected, context, date, minimum, firings);
+            }
+            for (LocalTime time : times) {
+                DateTime scheduledOn = date.toLocalDate().toLocalDateTime(time).toDateTime(context.zone);
+                if (!addFiring(expected, context, scheduledOn, minimum, firings)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean addFiring(List<ExpectedActivity> expected, Context context, DateTime scheduledOn,
+                int minimum, int[] firings) {
+            if (endsOn != null && scheduledOn.isAfter(endsOn)) {
+                return false;
+            }
+            if (scheduledOn.isAfter(context.endsOn) && firings[0] >= minimum) {
+                return false;
+            }
+            if (startsOn != null && scheduledOn.isBefore(startsOn)) {
+                return true;
+            }
+            DateTime expiresOn = (expires == null) ? null : scheduledOn.plus(expires);
+            if (expiresOn != null && !expiresOn.isAfter(context.now)) {
+                return true;
+            }
+            boolean persistent = (type == ScheduleType.PERSISTENT);
+            for (Activity activity : activities) {
+                expected.add(new ExpectedActivity(activity, scheduledOn, expiresOn, persistent));
+            }
+            firings[0]++;
+            return true;
+        }
+
+        private DateTime getEventTime(Context context) {
+            for (String eventId : eventIds) {
+                DateTime eventTime = context.events.get(eventId);
+                if (eventTime != null) {
+                    return eventTime;
+                }
+            }
+            return null;
+        }
+    }
+
+    public static CompiledSchedule compile(Schedule schedule) {
+        checkNotNull(schedule);
+        return new CompiledSchedule(schedule);
+    }
+
+    /**
+     * Expand a plan using a SimpleScheduleStrategy. Other strategies pick a schedule per user on the server; resolve
+     * the schedule and use {@link #compile(Schedule)} for those.
+     */
+    public static List<ExpectedActivity> expand(SchedulePlan plan, Context context) {
+        checkNotNull(plan);
+        checkArgument(plan.getStrategy() instanceof SimpleScheduleStrategy,
+                "Only plans with a SimpleScheduleStrategy can be expanded directly");
+        return compile(((SimpleScheduleStrategy) plan.getStrategy()).getSchedule()).expand(context);
+    }
+
+    private static Period parsePeriod(String period) {
+        return (period == null) ? null : Period.parse(period);
+    }
+}
@@ -0,0 +1,143 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.DateTime;
+import org.joda.time.LocalTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.SchedulesApi;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.SchedulePlan;
+import org.sagebionetworks.bridge.rest.model.ScheduledActivity;
+import org.sagebionetworks.bridge.sdk.integration.TestUserHelper.TestUser;
+
+/**
+ * Pushes updateScheduledActivities batches of increasing size concurrently across many users, as offline-sync
+ * clients do when they flush a large queue, and logs throughput, latency and failures for each batch size.
+ *
+ * Each user needs at least as many activities as the largest batch. The daily plan from Tests only yields one activity
+ * a day within the server's horizon, so the plan used here fires at many times each day instead.
+ *
+ * Configure with system properties: activityBatch.users, activityBatch.batchSizes (comma-separated),
+ * activityBatch.rounds (batches per user per size), activityBatch.timesPerDay, activityBatch.daysAhead.
+ */
+@Category(LoadTest.class)
+public class ScheduledActivityBatchLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(ScheduledActivityBatchLoadTest.class);
+
+    private static final int USERS = Integer.getInteger("activityBatch.users", 10);
+    private static final String BATCH_SIZES = System.getProperty("activityBatch.batchSizes", "10,100,1000");
+    private static final int ROUNDS = Integer.getInteger("activityBatch.rounds", 3);
+    private static final int TIMES_PER_DAY = Integer.getInteger("activityBatch.timesPerDay", 288);
+    private static final int DAYS_AHEAD = Integer.getInteger("activityBatch.daysAhead", 4);
+    private static final int SETUP_THREADS = 10;
+
+    private TestUser developer;
+    private List<TestUser> users;
+    private String planGuid;
+
+    @Before
+    public void before() throws Exception {
+        // Times are whole minutes apart, so there can be at most one per minute of the day.
+        checkArgument(TIMES_PER_DAY > 0 && TIMES_PER_DAY <= 24 * 60,
+                "activityBatch.timesPerDay must be between 1 and 1440, was %s", TIMES_PER_DAY);
+        developer = TestUserHelper.createAndSignInUser(ScheduledActivityBatchLoadTest.class, true, Role.DEVELOPER);
+        SchedulePlan plan = Tests.getDailyRepeatingSchedulePlan();
+        List<String> times = new ArrayList<>();
+        int minutesApart = 24 * 60 / TIMES_PER_DAY;
+        for (int i=0; i < TIMES_PER_DAY; i++) {
+            times.add(LocalTime.MIDNIGHT.plusMinutes(i * minutesApart).toString("HH:mm"));
+        }
+        Tests.getSimpleSchedule(plan).setTimes(times);
+        planGuid = developer.getClient(SchedulesApi.class).createSchedulePlan(plan).execute().body().getGuid();
+
+        users = TestUserHelper.createAndSignInUsers(ScheduledActivityBatchLoadTest.class, true, USERS,
+                SETUP_THREADS);
+    }
+
+    @After
+    public void after() throws Exception {
+        try {
+            if (users != null) {
+                TestUserHelper.deleteUsers(users);
+            }
+            if (planGuid != null) {
+                developer.getClient(SchedulesApi.class).deleteSchedulePlan(planGuid).execute();
+            }
+        } finally {
+            if (developer != null) {
+                developer.signOutAndDeleteUser();
+            }
+        }
+    }
+
+    @Test
+    public void batchUpdateThroughput() throws Exception {
+        Map<TestUser, List<ScheduledActivity>> activities = new HashMap<>();
+        for (TestUser user : users) {
+            activities.put(user, user.getClient(ForConsentedUsersApi.class)
+                    .getScheduledActivities("+00:00", DAYS_AHEAD, null).execute().body().getItems());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(USERS);
+        try {
+            for (String batchSizeString : BATCH_SIZES.split(",")) {
+                int batchSize = Integer.parseInt(batchSizeString.trim());
+                LatencyRecorder recorder = new LatencyRecorder("batch of " + batchSize);
+                // Users may have fewer activities than batchSize, so count what was actually sent.
+                AtomicLong activitiesSent = new AtomicLong();
+                long start = System.nanoTime();
+                List<Future<?>> futures = new ArrayList<>();
+                for (TestUser user : users) {
+                    List<ScheduledActivity> userActivities = activities.get(user);
+                    if (userActivities.size() < batchSize) {
+                        LOG.warn(user.getEmail() + " only has " + userActivities.size()
+                                + " activities; batches will be smaller than " + batchSize);
+                    }
+                    List<ScheduledActivity> batch = userActivities.subList(0,
+                            Math.min(batchSize, userActivities.size()));
+                    ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+                    futures.add(executor.submit(() -> {
+                        for (int i=0; i < ROUNDS; i++) {
+                            // Each round changes every activity, as a real flush would.
+                            DateTime startedOn = DateTime.now();
+                            for (ScheduledActivity activity : batch) {
+                                activity.setStartedOn(startedOn);
+                            }
+                            if (recorder.time(() -> usersApi.updateScheduledActivities(batch).execute()) != null) {
+                                activitiesSent.addAndGet(batch.size());
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+                LOG.info(recorder.summary() + String.format(" activitiesSent=%d activitiesPerSecond=%.1f",
+                        activitiesSent.get(), activitiesSent.get() / seconds));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue("Users had no activities to update", activities.values().stream().anyMatch(l -> !l.isEmpty()));
+    }
+}
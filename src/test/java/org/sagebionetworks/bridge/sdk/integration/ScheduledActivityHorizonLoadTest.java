@@ -0,0 +1,119 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.SchedulesApi;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.SchedulePlan;
+import org.sagebionetworks.bridge.rest.model.ScheduledActivityList;
+import org.sagebionetworks.bridge.sdk.integration.TestUserHelper.TestUser;
+
+/**
+ * Measures how getScheduledActivities scales with the scheduling horizon. For each number of schedule plans (half
+ * daily repeating, half cron-based, as in Tests), sweeps daysAhead from 1 to the server maximum and
+ * minimumPerSchedule from 0 to a maximum, logging latency and payload size against the number of activities
+ * returned. Results are logged as CSV rows for plotting.
+ *
+ * Configure with system properties: horizon.planCounts (comma-separated, e.g. "2,10,20"), horizon.maxDaysAhead,
+ * horizon.maxMinimumPerSchedule, horizon.repetitions (requests per point).
+ */
+@Category(LoadTest.class)
+public class ScheduledActivityHorizonLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(ScheduledActivityHorizonLoadTest.class);
+
+    private static final String PLAN_COUNTS = System.getProperty("horizon.planCounts", "2,10,20");
+    private static final int MAX_DAYS_AHEAD = Integer.getInteger("horizon.maxDaysAhead", 4);
+    private static final int MAX_MINIMUM_PER_SCHEDULE = Integer.getInteger("horizon.maxMinimumPerSchedule", 5);
+    private static final int REPETITIONS = Integer.getInteger("horizon.repetitions", 5);
+    private static final String OFFSET = "+00:00";
+
+    private TestUser developer;
+    private TestUser user;
+    private SchedulesApi schedulesApi;
+    private final List<String> planGuids = new ArrayList<>();
+
+    @Before
+    public void before() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(ScheduledActivityHorizonLoadTest.class, true, Role.DEVELOPER);
+        user = TestUserHelper.createAndSignInUser(ScheduledActivityHorizonLoadTest.class, true);
+        schedulesApi = developer.getClient(SchedulesApi.class);
+    }
+
+    @After
+    public void after() throws Exception {
+        try {
+            deletePlans();
+        } finally {
+            if (developer != null) {
+                developer.signOutAndDeleteUser();
+            }
+            if (user != null) {
+                user.signOutAndDeleteUser();
+            }
+        }
+    }
+
+    @Test
+    public void horizonSweep() throws Exception {
+        ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+
+        LOG.info("plans,daysAhead,minimumPerSchedule,activities,payloadBytes,p50Millis,p90Millis,maxMillis,errors");
+        for (String planCountString : PLAN_COUNTS.split(",")) {
+            int planCount = Integer.parseInt(planCountString.trim());
+            createPlans(planCount);
+
+            for (int daysAhead=1; daysAhead <= MAX_DAYS_AHEAD; daysAhead++) {
+                for (int minimum=0; minimum <= MAX_MINIMUM_PER_SCHEDULE; minimum++) {
+                    final int days = daysAhead;
+                    final int min = minimum;
+                    LatencyRecorder recorder = new LatencyRecorder("horizon");
+                    ScheduledActivityList list = null;
+                    for (int i=0; i < REPETITIONS; i++) {
+                        ScheduledActivityList result = recorder.time(
+                                () -> usersApi.getScheduledActivities(OFFSET, days, min).execute().body());
+                        if (result != null) {
+                            list = result;
+                        }
+                    }
+                    int activities = (list == null) ? 0 : list.getItems().size();
+                    // The re-serialized list approximates the response body; the wire format is the same JSON.
+                    int payloadBytes = (list == null) ? 0 : RestUtils.GSON.toJson(list).getBytes(UTF_8).length;
+                    LOG.info(String.format("%d,%d,%d,%d,%d,%.1f,%.1f,%.1f,%d", planCount, daysAhead, minimum,
+                            activities, payloadBytes, recorder.getPercentileMillis(50),
+                            recorder.getPercentileMillis(90), recorder.getPercentileMillis(100),
+                            recorder.getErrorCount()));
+                    assertEquals("Requests failed: " + recorder.getErrorCounts(), 0, recorder.getErrorCount());
+                }
+            }
+            deletePlans();
+        }
+    }
+
+    private void createPlans(int count) throws Exception {
+        for (int i=0; i < count; i++) {
+            SchedulePlan plan = (i % 2 == 0) ? Tests.getDailyRepeatingSchedulePlan() : Tests.getSimpleSchedulePlan();
+            plan.setLabel(plan.getLabel() + " " + i);
+            planGuids.add(schedulesApi.createSchedulePlan(plan).execute().body().getGuid());
+        }
+    }
+
+    private void deletePlans() throws Exception {
+        for (String guid : planGuids) {
+            schedulesApi.deleteSchedulePlan(guid).execute();
+        }
+        planGuids.clear();
+    }
+}
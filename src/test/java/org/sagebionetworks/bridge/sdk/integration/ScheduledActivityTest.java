@@ -39,6 +39,7 @@ public class ScheduledActivityTest {
     private TestUser developer;
     private SchedulesApi schedulePlansApi;
     private ForConsentedUsersApi usersApi;
+    private List<String> planGuids;
 
     @Before
     public void before() throws Exception {
@@ -70,7 +71,8 @@ public class ScheduledActivityTest {
         SchedulePlan plan = new SchedulePlan();
         plan.setLabel("Schedule plan 1");
         plan.setStrategy(strategy);
-        schedulePlansApi.createSchedulePlan(plan).execute();
+        planGuids = Lists.newArrayList();
+        planGuids.add(schedulePlansApi.createSchedulePlan(plan).execute().body().getGuid());
         
         // Add a schedule plan in the future... this should not effect any tests, *until* we request
         // a minimum number of tasks, which will retrieve this.
@@ -97,7 +99,7 @@ public class ScheduledActivityTest {
         plan = new SchedulePlan();
         plan.setLabel("Schedule plan 2");
         plan.setStrategy(strategy);
-        schedulePlansApi.createSchedulePlan(plan).execute();
+        planGuids.add(schedulePlansApi.createSchedulePlan(plan).execute().body().getGuid());
     }
 
     @After
@@ -164,6 +166,31 @@ public class ScheduledActivityTest {
         assertEquals(5, idCounts.count("task:BBB"));
     }
     
+    @Test
+    public void scheduleExpanderPredictsScheduledActivities() throws Exception {
+        DateTime enrollment = usersApi.getUsersParticipantRecord().execute().body().getCreatedOn();
+        // Only expand the plans created by this test; the study may have others, with other strategies.
+        List<SchedulePlan> plans = schedulePlansApi.getSchedulePlans().execute().body().getItems().stream()
+                .filter((plan) -> planGuids.contains(plan.getGuid())).collect(Collectors.toList());
+        assertEquals(planGuids.size(), plans.size());
+        
+        for (int minimum : new int[] {0, 2, 5}) {
+            ScheduleExpander.Context context = new ScheduleExpander.Context("+00:00", enrollment, DateTime.now(), 4,
+                    minimum);
+            Multiset<String> expected = HashMultiset.create();
+            for (SchedulePlan plan : plans) {
+                for (ScheduleExpander.ExpectedActivity activity : ScheduleExpander.expand(plan, context)) {
+                    expected.add(activity.getActivityKey());
+                }
+            }
+            ScheduledActivityList scheduledActivities = usersApi.getScheduledActivities("+00:00", 4, minimum)
+                    .execute().body();
+            Multiset<String> actual = getMultiset(scheduledActivities);
+            actual.retainAll(Lists.newArrayList("task:AAA", "task:BBB"));
+            assertEquals(expected, actual);
+        }
+    }
+    
     private Multiset<String> getMultiset(ScheduledActivityList scheduledActivities) {
         return HashMultiset.create(scheduledActivities.getItems().stream()
                 .map((act) -> act.getActivity().getTask().getIdentifier())
@@ -0,0 +1,115 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.exceptions.BridgeSDKException;
+import org.sagebionetworks.bridge.rest.model.ScheduledActivity;
+import org.sagebionetworks.bridge.rest.model.ScheduledActivityList;
+
+/**
+ * Sends only the scheduled activities that have changed since they were fetched, instead of the whole list, through
+ * updateScheduledActivities. The tracker snapshots each activity (by GUID) when it is fetched or successfully
+ * updated; any activity whose JSON differs from its snapshot, or that has no snapshot, is sent. Changes are sent in
+ * batches of at most maxBatchSize activities.
+ *
+ * Not thread-safe; use one tracker per user.
+ */
+public class ScheduledActivityTracker {
+
+    private final ForConsentedUsersApi usersApi;
+    private final int maxBatchSize;
+    private final Map<String, String> snapshots = new HashMap<>();
+    private long bytesSent;
+    private long bytesSaved;
+    private int updateCalls;
+
+    public ScheduledActivityTracker(ForConsentedUsersApi usersApi, int maxBatchSize) {
+        checkNotNull(usersApi);
+        checkArgument(maxBatchSize > 0);
+        this.usersApi = usersApi;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /** Fetch scheduled activities and snapshot them. */
+    public ScheduledActivityList getScheduledActivities(String offset, Integer daysAhead, Integer minimumPerSchedule) {
+        try {
+            ScheduledActivityList list = usersApi.getScheduledActivities(offset, daysAhead, minimumPerSchedule)
+                    .execute().body();
+            snapshot(list.getItems());
+            return list;
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+    }
+
+    /** Record the current state of these activities as the state known to the server. */
+    public void snapshot(List<ScheduledActivity> activities) {
+        for (ScheduledActivity activity : activities) {
+            snapshots.put(activity.getGuid(), RestUtils.GSON.toJson(activity));
+        }
+    }
+
+    public List<ScheduledActivity> getChangedActivities(List<ScheduledActivity> activities) {
+        List<ScheduledActivity> changed = new ArrayList<>();
+        for (ScheduledActivity activity : activities) {
+            if (!RestUtils.GSON.toJson(activity).equals(snapshots.get(activity.getGuid()))) {
+                changed.add(activity);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Send the activities in this list that have changed, in size-capped batches. Each batch is snapshotted once the
+     * server accepts it, so a failed update can be retried by calling this again. Returns the number of activities
+     * sent.
+     */
+    public int updateChangedActivities(List<ScheduledActivity> activities) {
+        List<ScheduledActivity> changed = getChangedActivities(activities);
+        long changedBytes = 0;
+        for (int i=0; i < changed.size(); i += maxBatchSize) {
+            List<ScheduledActivity> batch = changed.subList(i, Math.min(changed.size(), i + maxBatchSize));
+            long batchBytes = jsonBytes(batch);
+            try {
+                usersApi.updateScheduledActivities(batch).execute();
+            } catch (IOException e) {
+                throw new BridgeSDKException(e.getMessage(), e);
+            }
+            updateCalls++;
+            bytesSent += batchBytes;
+            changedBytes += batchBytes;
+            snapshot(batch);
+        }
+        if (!changed.isEmpty()) {
+            bytesSaved += Math.max(0, jsonBytes(activities) - changedBytes);
+        }
+        return changed.size();
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /** Bytes not sent, compared to sending the full list in a single update. */
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    public int getUpdateCallCount() {
+        return updateCalls;
+    }
+
+    private static long jsonBytes(List<ScheduledActivity> activities) {
+        return RestUtils.GSON.toJson(activities).getBytes(UTF_8).length;
+    }
+}
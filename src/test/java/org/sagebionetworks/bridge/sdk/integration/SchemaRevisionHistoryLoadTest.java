@@ -0,0 +1,183 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.UploadSchemasApi;
+import org.sagebionetworks.bridge.rest.exceptions.EntityNotFoundException;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.UploadFieldDefinition;
+import org.sagebionetworks.bridge.rest.model.UploadFieldType;
+import org.sagebionetworks.bridge.rest.model.UploadSchema;
+import org.sagebionetworks.bridge.rest.model.UploadSchemaType;
+import org.sagebionetworks.bridge.sdk.integration.TestUserHelper.TestUser;
+
+/**
+ * Measures how the upload schema store scales with revision history and field list width. For each field count and
+ * revision count, builds a schema of that many fields (mixed types, see {@link #wideSchema(String, int)}) and revises
+ * it through createOrUpdateUploadSchema until it has that many revisions. Then logs latency and payload size of
+ * createOrUpdateUploadSchema, getAllRevisionsOfUploadSchema, getMostRecentUploadSchemas and
+ * deleteAllRevisionsOfUploadSchema as CSV rows. getMostRecentUploadSchemas includes the study's other schemas, so run
+ * against a quiet study.
+ *
+ * Configure with system properties: schemaHistory.fieldCounts and schemaHistory.revisionCounts (comma-separated),
+ * schemaHistory.repetitions.
+ */
+@Category(LoadTest.class)
+public class SchemaRevisionHistoryLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaRevisionHistoryLoadTest.class);
+
+    private static final String FIELD_COUNTS = System.getProperty("schemaHistory.fieldCounts", "10,500,2000");
+    private static final String REVISION_COUNTS = System.getProperty("schemaHistory.revisionCounts", "10,100,300");
+    private static final int REPETITIONS = Integer.getInteger("schemaHistory.repetitions", 5);
+
+    private TestUser developer;
+    private ForAdminsApi adminsApi;
+    private List<String> schemasToDelete;
+
+    @Before
+    public void before() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(SchemaRevisionHistoryLoadTest.class, false, Role.DEVELOPER);
+        adminsApi = TestUserHelper.getSignedInAdmin().getClient(ForAdminsApi.class);
+        schemasToDelete = new ArrayList<>();
+    }
+
+    @After
+    public void after() throws Exception {
+        try {
+            for (String schemaId : schemasToDelete) {
+                try {
+                    adminsApi.deleteAllRevisionsOfUploadSchema(Tests.TEST_KEY, schemaId).execute();
+                } catch (EntityNotFoundException e) {
+                    // Already deleted by the test.
+                }
+            }
+        } finally {
+            if (developer != null) {
+                developer.signOutAndDeleteUser();
+            }
+        }
+    }
+
+    @Test
+    public void revisionHistoryScaling() throws Exception {
+        UploadSchemasApi schemasApi = developer.getClient(UploadSchemasApi.class);
+
+        LOG.info("fields,revisions,call,items,payloadBytes,p50Millis,p90Millis,maxMillis,errors");
+        for (String fieldCountString : FIELD_COUNTS.split(",")) {
+            int fieldCount = Integer.parseInt(fieldCountString.trim());
+            for (String revisionCountString : REVISION_COUNTS.split(",")) {
+                int revisionCount = Integer.parseInt(revisionCountString.trim());
+                String schemaId = Tests.randomIdentifier(SchemaRevisionHistoryLoadTest.class);
+                schemasToDelete.add(schemaId);
+
+                // Build the revision history, timing every write.
+                LatencyRecorder writes = new LatencyRecorder("createOrUpdateUploadSchema");
+                UploadSchema schema = wideSchema(schemaId, fieldCount);
+                int requestBytes = RestUtils.GSON.toJson(schema).getBytes(UTF_8).length;
+                for (int i=0; i < revisionCount; i++) {
+                    schema.setName("Revision " + (i+1));
+                    UploadSchema saved = writes.timeOrThrow(() -> schemasApi.createOrUpdateUploadSchema(schema)
+                            .execute().body());
+                    schema.setRevision(saved.getRevision());
+                    schema.setVersion(saved.getVersion());
+                }
+                log(fieldCount, revisionCount, "createOrUpdateUploadSchema", writes, 1, requestBytes);
+                assertEquals(revisionCount, schema.getRevision().intValue());
+
+                measure(fieldCount, revisionCount, "getAllRevisionsOfUploadSchema",
+                        () -> schemasApi.getAllRevisionsOfUploadSchema(schemaId).execute().body().getItems());
+                measure(fieldCount, revisionCount, "getMostRecentUploadSchemas",
+                        () -> schemasApi.getMostRecentUploadSchemas().execute().body().getItems());
+
+                LatencyRecorder deletes = new LatencyRecorder("deleteAllRevisionsOfUploadSchema");
+                deletes.timeOrThrow(() -> adminsApi.deleteAllRevisionsOfUploadSchema(Tests.TEST_KEY, schemaId)
+                        .execute());
+                schemasToDelete.remove(schemaId);
+                log(fieldCount, revisionCount, "deleteAllRevisionsOfUploadSchema", deletes, revisionCount, 0);
+            }
+        }
+    }
+
+    /**
+     * A schema with the given number of fields, cycling through the field types the server validates differently:
+     * bounded and unbounded strings, ints, booleans, multi-choice lists and attachments.
+     */
+    static UploadSchema wideSchema(String schemaId, int fieldCount) {
+        List<UploadFieldDefinition> fields = new ArrayList<>(fieldCount);
+        for (int i=0; i < fieldCount; i++) {
+            UploadFieldDefinition field = new UploadFieldDefinition();
+            field.setName("field" + i);
+            field.setRequired(false);
+            switch (i % 6) {
+                case 0:
+                    field.setType(UploadFieldType.STRING);
+                    field.setMaxLength(24);
+                    break;
+                case 1:
+                    field.setType(UploadFieldType.STRING);
+                    field.setUnboundedText(true);
+                    break;
+                case 2:
+                    field.setType(UploadFieldType.INT);
+                    break;
+                case 3:
+                    field.setType(UploadFieldType.BOOLEAN);
+                    break;
+                case 4:
+                    field.setType(UploadFieldType.MULTI_CHOICE);
+                    field.setAllowOtherChoices(true);
+                    field.setMultiChoiceAnswerList(Lists.newArrayList("foo", "bar", "baz"));
+                    break;
+                default:
+                    field.setType(UploadFieldType.ATTACHMENT_V2);
+                    field.setFileExtension(".json");
+                    field.setMimeType("text/json");
+                    break;
+            }
+            fields.add(field);
+        }
+        UploadSchema schema = new UploadSchema();
+        schema.setSchemaId(schemaId);
+        schema.setName("Revision 1");
+        schema.setSchemaType(UploadSchemaType.IOS_DATA);
+        schema.setFieldDefinitions(fields);
+        return schema;
+    }
+
+    private void measure(int fieldCount, int revisionCount, String call, Callable<List<UploadSchema>> request) {
+        LatencyRecorder recorder = new LatencyRecorder(call);
+        List<UploadSchema> items = null;
+        for (int i=0; i < REPETITIONS; i++) {
+            List<UploadSchema> result = recorder.time(request);
+            if (result != null) {
+                items = result;
+            }
+        }
+        int itemCount = (items == null) ? 0 : items.size();
+        int payloadBytes = (items == null) ? 0 : RestUtils.GSON.toJson(items).getBytes(UTF_8).length;
+        log(fieldCount, revisionCount, call, recorder, itemCount, payloadBytes);
+        assertEquals(call + " failed: " + recorder.getErrorCounts(), 0, recorder.getErrorCount());
+    }
+
+    private void log(int fieldCount, int revisionCount, String call, LatencyRecorder recorder, int items,
+            int payloadBytes) {
+        LOG.info(String.format("%d,%d,%s,%d,%d,%.1f,%.1f,%.1f,%d", fieldCount, revisionCount, call, items,
+                payloadBytes, recorder.getPercentileMillis(50), recorder.getPercentileMillis(90),
+                recorder.getPercentileMillis(100), recorder.getErrorCount()));
+    }
+}
@@ -0,0 +1,199 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.UploadSchemasApi;
+import org.sagebionetworks.bridge.rest.exceptions.EntityNotFoundException;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.UploadFieldDefinition;
+import org.sagebionetworks.bridge.rest.model.UploadFieldType;
+import org.sagebionetworks.bridge.rest.model.UploadSchema;
+import org.sagebionetworks.bridge.rest.model.UploadSchemaType;
+import org.sagebionetworks.bridge.sdk.integration.TestUserHelper.TestUser;
+
+/**
+ * Contention on a single upload schema. N threads each add fields to the same schemaId with read-modify-write loops
+ * (getMostRecentUploadSchema, add a field, createOrUpdateUploadSchema), so concurrent writers conflict on the schema's
+ * revision. Each thread count is run twice on a fresh schema:
+ *
+ * - without retries, to measure the raw conflict rate;
+ * - with {@link ConflictRetrier}, to measure retries-to-success and effective throughput. Every field must then be in
+ *   the final revision, which validates that retrying loses no updates.
+ *
+ * Logs one CSV row per run. Configure with system properties: schemaContention.threadCounts (comma-separated),
+ * schemaContention.updatesPerThread, schemaContention.maxAttempts, schemaContention.baseDelayMillis,
+ * schemaContention.maxDelayMillis.
+ */
+@Category(LoadTest.class)
+public class SchemaUpdateContentionLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaUpdateContentionLoadTest.class);
+
+    private static final String THREAD_COUNTS = System.getProperty("schemaContention.threadCounts", "1,2,4,8,16");
+    private static final int UPDATES_PER_THREAD = Integer.getInteger("schemaContention.updatesPerThread", 10);
+    private static final int MAX_ATTEMPTS = Integer.getInteger("schemaContention.maxAttempts", 50);
+    private static final long BASE_DELAY_MILLIS = Long.getLong("schemaContention.baseDelayMillis", 20L);
+    private static final long MAX_DELAY_MILLIS = Long.getLong("schemaContention.maxDelayMillis", 2000L);
+
+    private TestUser developer;
+    private List<String> schemasToDelete;
+
+    @Before
+    public void before() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(SchemaUpdateContentionLoadTest.class, false, Role.DEVELOPER);
+        schemasToDelete = new ArrayList<>();
+    }
+
+    @After
+    public void after() throws Exception {
+        try {
+            ForAdminsApi adminsApi = TestUserHelper.getSignedInAdmin().getClient(ForAdminsApi.class);
+            for (String schemaId : schemasToDelete) {
+                try {
+                    adminsApi.deleteAllRevisionsOfUploadSchema(Tests.TEST_KEY, schemaId).execute();
+                } catch (EntityNotFoundException e) {
+                    // Creation failed, nothing to delete.
+                }
+            }
+        } finally {
+            if (developer != null) {
+                developer.signOutAndDeleteUser();
+            }
+        }
+    }
+
+    @Test
+    public void schemaUpdateContention() throws Exception {
+        UploadSchemasApi schemasApi = developer.getClient(UploadSchemasApi.class);
+
+        LOG.info("threads,mode,updates,conflicts,conflictRate,meanRetries,maxRetries,exhausted,p50Millis,"
+                + "p90Millis,updatesPerSecond");
+        for (String threadCountString : THREAD_COUNTS.split(",")) {
+            int threadCount = Integer.parseInt(threadCountString.trim());
+
+            // Without retries, each conflict is a lost update.
+            String schemaId = createSchema(schemasApi);
+            LatencyRecorder recorder = new LatencyRecorder("update without retry");
+            runThreads(threadCount, (thread, i) -> recorder.time(() -> addField(schemasApi, schemaId,
+                    fieldName(thread, i))));
+            int conflicts = recorder.getErrorCounts().getOrDefault("ConcurrentModificationException", 0);
+            log(threadCount, "none", recorder, conflicts, 0.0, 0, 0);
+
+            // With retries, every update should eventually land.
+            String retriedSchemaId = createSchema(schemasApi);
+            ConflictRetrier retrier = new ConflictRetrier(MAX_ATTEMPTS, BASE_DELAY_MILLIS, MAX_DELAY_MILLIS);
+            LatencyRecorder retriedRecorder = new LatencyRecorder("update with retry");
+            runThreads(threadCount, (thread, i) -> retriedRecorder.time(() -> retrier.call(() -> addField(
+                    schemasApi, retriedSchemaId, fieldName(thread, i)))));
+            int maxRetries = retrier.getRetriesToSuccess().keySet().stream().mapToInt(Integer::intValue).max()
+                    .orElse(0);
+            log(threadCount, "jitteredBackoff", retriedRecorder, (int) retrier.getConflictCount(),
+                    retrier.getMeanRetriesToSuccess(), maxRetries, retrier.getExhaustedCount());
+
+            assertEquals("Updates failed: " + retriedRecorder.getErrorCounts(), 0, retriedRecorder.getErrorCount());
+            Set<String> fieldNames = new HashSet<>();
+            for (UploadFieldDefinition field : schemasApi.getMostRecentUploadSchema(retriedSchemaId).execute().body()
+                    .getFieldDefinitions()) {
+                fieldNames.add(field.getName());
+            }
+            for (int thread=0; thread < threadCount; thread++) {
+                for (int i=0; i < UPDATES_PER_THREAD; i++) {
+                    assertTrue("Lost update " + fieldName(thread, i), fieldNames.contains(fieldName(thread, i)));
+                }
+            }
+        }
+    }
+
+    private interface Update {
+        void run(int thread, int i);
+    }
+
+    private static void runThreads(int threadCount, Update update) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread=0; thread < threadCount; thread++) {
+                final int threadIndex = thread;
+                futures.add(executor.submit(() -> {
+                    for (int i=0; i < UPDATES_PER_THREAD; i++) {
+                        update.run(threadIndex, i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String createSchema(UploadSchemasApi schemasApi) throws IOException {
+        String schemaId = Tests.randomIdentifier(SchemaUpdateContentionLoadTest.class);
+        schemasToDelete.add(schemaId);
+
+        List<UploadFieldDefinition> fields = new ArrayList<>();
+        fields.add(field("base"));
+        UploadSchema schema = new UploadSchema();
+        schema.setSchemaId(schemaId);
+        schema.setName("Contention");
+        schema.setSchemaType(UploadSchemaType.IOS_DATA);
+        schema.setFieldDefinitions(fields);
+        schemasApi.createOrUpdateUploadSchema(schema).execute();
+        return schemaId;
+    }
+
+    // Read-modify-write: conflicts if another writer created the next revision since we read.
+    private static UploadSchema addField(UploadSchemasApi schemasApi, String schemaId, String fieldName)
+            throws IOException {
+        UploadSchema schema = schemasApi.getMostRecentUploadSchema(schemaId).execute().body();
+        List<UploadFieldDefinition> fields = new ArrayList<>(schema.getFieldDefinitions());
+        fields.add(field(fieldName));
+        schema.setFieldDefinitions(fields);
+        return schemasApi.createOrUpdateUploadSchema(schema).execute().body();
+    }
+
+    private static UploadFieldDefinition field(String name) {
+        UploadFieldDefinition field = new UploadFieldDefinition();
+        field.setName(name);
+        field.setRequired(false);
+        field.setType(UploadFieldType.STRING);
+        field.setMaxLength(24);
+        return field;
+    }
+
+    private static String fieldName(int thread, int i) {
+        return "t" + thread + "-u" + i;
+    }
+
+    private static void log(int threadCount, String mode, LatencyRecorder recorder, int conflicts,
+            double meanRetries, int maxRetries, long exhausted) {
+        // Every conflict is a rejected write, whether or not it was retried.
+        int writes = recorder.getSuccessCount() + conflicts;
+        double conflictRate = (writes == 0) ? 0.0 : (double) conflicts / writes;
+        // The recorder's throughput counts failed updates too; only successful ones are effective.
+        int calls = recorder.getSuccessCount() + recorder.getErrorCount();
+        double effectiveThroughput = recorder.getThroughputPerSecond() * recorder.getSuccessCount()
+                / Math.max(1, calls);
+        LOG.info(String.format("%d,%s,%d,%d,%.3f,%.2f,%d,%d,%.1f,%.1f,%.2f", threadCount, mode,
+                recorder.getSuccessCount(), conflicts, conflictRate, meanRetries, maxRetries, exhausted,
+                recorder.getPercentileMillis(50), recorder.getPercentileMillis(90), effectiveThroughput));
+    }
+}
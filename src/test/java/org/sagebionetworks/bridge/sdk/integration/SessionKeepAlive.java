@@ -0,0 +1,125 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.DateTimeUtils;
+import org.joda.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.exceptions.ConsentRequiredException;
+import org.sagebionetworks.bridge.sdk.integration.TestUserHelper.TestUser;
+
+/**
+ * Refreshes the sessions of registered TestUsers in the background, before they expire, so that long soak runs don't
+ * pay for a transparent sign-in on whichever request happens to hit the expiry. Refreshes go through
+ * {@link TestUser#signInAgain()}, i.e. AuthenticationApi.signIn.
+ *
+ * Each user is refreshed at a random point in the window [lifetime - 2*margin, lifetime - margin] after its last
+ * sign-in, which spreads refreshes for users created at the same time and avoids a thundering herd against the auth
+ * tier. Refreshes that complete before the previous session would have expired are counted separately from those
+ * that complete late (after failed attempts were retried), which is when a request could have hit an expired session.
+ */
+public class SessionKeepAlive {
+    private static final Logger LOG = LoggerFactory.getLogger(SessionKeepAlive.class);
+
+    private static final Duration RETRY_DELAY = Duration.standardSeconds(30);
+
+    private final ScheduledExecutorService scheduler;
+    private final long lifetimeMillis;
+    private final long marginMillis;
+    private final ConcurrentMap<TestUser, ScheduledFuture<?>> scheduled = new ConcurrentHashMap<>();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshedBeforeExpiry = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public SessionKeepAlive(Duration sessionLifetime, Duration refreshMargin, int threads) {
+        checkNotNull(sessionLifetime);
+        checkNotNull(refreshMargin);
+        checkArgument(refreshMargin.getMillis() > 0, "refreshMargin must be positive");
+        checkArgument(sessionLifetime.getMillis() > refreshMargin.getMillis() * 2,
+                "sessionLifetime must be more than twice the refreshMargin");
+        checkArgument(threads > 0);
+        this.lifetimeMillis = sessionLifetime.getMillis();
+        this.marginMillis = refreshMargin.getMillis();
+        this.scheduler = Executors.newScheduledThreadPool(threads);
+    }
+
+    /** Start keeping this user's session alive. The user is assumed to have just signed in. */
+    public void register(TestUser user) {
+        checkNotNull(user);
+        long now = DateTimeUtils.currentTimeMillis();
+        scheduled.put(user, scheduler.schedule(() -> refresh(user, now), nextRefreshDelay(), TimeUnit.MILLISECONDS));
+    }
+
+    public void unregister(TestUser user) {
+        ScheduledFuture<?> future = scheduled.remove(user);
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    public long getRefreshCount() {
+        return refreshes.get();
+    }
+
+    /**
+     * Refreshes that completed while the previous session was still valid. Refreshes are scheduled ahead of expiry, so
+     * this only falls behind {@link #getRefreshCount()} when refreshes fail and are retried past the expiry.
+     */
+    public long getRefreshedBeforeExpiryCount() {
+        return refreshedBeforeExpiry.get();
+    }
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        scheduled.clear();
+    }
+
+    // Only reschedules users that are still registered, so a concurrent unregister() wins.
+    private void reschedule(TestUser user, long signedInOn, long delayMillis) {
+        scheduled.computeIfPresent(user, (key, previous) -> scheduler.schedule(() -> refresh(user, signedInOn),
+                delayMillis, TimeUnit.MILLISECONDS));
+    }
+
+    private void refresh(TestUser user, long signedInOn) {
+        if (!scheduled.containsKey(user)) {
+            return;
+        }
+        try {
+            try {
+                user.signInAgain();
+            } catch (ConsentRequiredException e) {
+                // Unconsented users still receive a fresh session.
+            }
+            long now = DateTimeUtils.currentTimeMillis();
+            refreshes.incrementAndGet();
+            if (now - signedInOn < lifetimeMillis) {
+                refreshedBeforeExpiry.incrementAndGet();
+            }
+            reschedule(user, now, nextRefreshDelay());
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            LOG.warn("Could not refresh session for " + user.getEmail() + ": " + e.getMessage(), e);
+            reschedule(user, signedInOn, RETRY_DELAY.getMillis());
+        }
+    }
+
+    private long nextRefreshDelay() {
+        return lifetimeMillis - marginMillis - ThreadLocalRandom.current().nextLong(marginMillis);
+    }
+}
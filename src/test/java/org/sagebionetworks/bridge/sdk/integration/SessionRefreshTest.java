@@ -1,12 +1,26 @@
 package org.sagebionetworks.bridge.sdk.integration;
 
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.Lists;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import org.joda.time.Duration;
+
 import org.sagebionetworks.bridge.rest.api.ParticipantsApi;
 import org.sagebionetworks.bridge.rest.exceptions.ConsentRequiredException;
+import org.sagebionetworks.bridge.rest.model.UserSessionInfo;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class SessionRefreshTest {
@@ -40,4 +54,59 @@ public class SessionRefreshTest {
             // this is expected
         }
     }
+
+    @Test
+    public void keepAliveRefreshesSessionBeforeExpiry() throws Exception {
+        // Pretend sessions only last 3 seconds, so a refresh is scheduled within 1-2 seconds of registering.
+        SessionKeepAlive keepAlive = new SessionKeepAlive(Duration.standardSeconds(3), Duration.standardSeconds(1), 1);
+        try {
+            keepAlive.register(user);
+            Thread.sleep(4000);
+            keepAlive.unregister(user);
+
+            assertTrue(keepAlive.getRefreshCount() >= 1);
+            assertTrue(keepAlive.getRefreshedBeforeExpiryCount() >= 1);
+            assertEquals(0L, keepAlive.getFailureCount());
+        } finally {
+            keepAlive.shutdown();
+        }
+    }
+
+    @Test
+    public void concurrentSignInAgainSignsInOnce() throws Exception {
+        int threadCount = 10;
+        TestUserHelper.TestUser consentedUser = TestUserHelper.createAndSignInUser(SessionRefreshTest.class, true);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            consentedUser.signOut();
+            int signInsBefore = consentedUser.getSignInCount();
+            // Every thread found the session expired at the same point, so they all pass this generation.
+            int generation = consentedUser.getSignInGeneration();
+
+            // Release all threads at once.
+            CountDownLatch startGate = new CountDownLatch(1);
+            List<Callable<UserSessionInfo>> tasks = Lists.newArrayList();
+            for (int i=0; i < threadCount; i++) {
+                tasks.add(() -> {
+                    startGate.await();
+                    return consentedUser.signInAgain(generation);
+                });
+            }
+            List<Future<UserSessionInfo>> futures = Lists.newArrayList();
+            for (Callable<UserSessionInfo> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            startGate.countDown();
+
+            UserSessionInfo session = futures.get(0).get();
+            for (Future<UserSessionInfo> future : futures) {
+                assertSame(session, future.get());
+            }
+            assertEquals(signInsBefore + 1, consentedUser.getSignInCount());
+            assertTrue(session.getAuthenticated());
+        } finally {
+            executor.shutdownNow();
+            consentedUser.signOutAndDeleteUser();
+        }
+    }
 }
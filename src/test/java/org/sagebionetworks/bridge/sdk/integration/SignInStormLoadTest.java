@@ -0,0 +1,120 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.AuthenticationApi;
+import org.sagebionetworks.bridge.sdk.integration.TestUserHelper.TestUser;
+
+/**
+ * Simulates a study launch: many pre-created participants hit AuthenticationApi.signIn following a ramp. Sign-ins are
+ * issued open-loop (on a timer, regardless of how slow earlier sign-ins are), so an overloaded auth tier shows up as
+ * growing latency and errors rather than as a lower request rate.
+ *
+ * Configure with system properties: signInStorm.users, signInStorm.unconsentedPercent, signInStorm.profile (CONSTANT,
+ * STEP or SPIKE), signInStorm.baseRate and signInStorm.peakRate (sign-ins per second), signInStorm.durationSeconds.
+ */
+@Category(LoadTest.class)
+public class SignInStormLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(SignInStormLoadTest.class);
+
+    private static final int USERS = Integer.getInteger("signInStorm.users", 20);
+    private static final int UNCONSENTED_PERCENT = Integer.getInteger("signInStorm.unconsentedPercent", 10);
+    private static final RampProfile PROFILE = RampProfile.valueOf(System.getProperty("signInStorm.profile",
+            "STEP"));
+    private static final int BASE_RATE = Integer.getInteger("signInStorm.baseRate", 2);
+    private static final int PEAK_RATE = Integer.getInteger("signInStorm.peakRate", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("signInStorm.durationSeconds", 20);
+    private static final int SETUP_THREADS = 10;
+    private static final int WORKER_THREADS = 100;
+
+    /** Target sign-ins per second at each second of the run. */
+    enum RampProfile {
+        /** Base rate throughout. */
+        CONSTANT {
+            int rateAt(int second, int duration, int baseRate, int peakRate) {
+                return baseRate;
+            }
+        },
+        /** Four equal steps from the base rate up to the peak rate. */
+        STEP {
+            int rateAt(int second, int duration, int baseRate, int peakRate) {
+                int step = Math.min(3, second * 4 / duration);
+                return baseRate + (peakRate - baseRate) * step / 3;
+            }
+        },
+        /** Base rate, with a burst at the peak rate for the middle tenth of the run. */
+        SPIKE {
+            int rateAt(int second, int duration, int baseRate, int peakRate) {
+                int spikeStart = duration * 45 / 100;
+                int spikeEnd = Math.max(spikeStart + 1, duration * 55 / 100);
+                return (second >= spikeStart && second < spikeEnd) ? peakRate : baseRate;
+            }
+        };
+        abstract int rateAt(int second, int duration, int baseRate, int peakRate);
+    }
+
+    private List<TestUser> users;
+
+    @Before
+    public void before() throws Exception {
+        int unconsentedCount = USERS * UNCONSENTED_PERCENT / 100;
+        users = new ArrayList<>();
+        users.addAll(TestUserHelper.createAndSignInUsers(SignInStormLoadTest.class, true, USERS - unconsentedCount,
+                SETUP_THREADS));
+        users.addAll(TestUserHelper.createAndSignInUsers(SignInStormLoadTest.class, false, unconsentedCount,
+                SETUP_THREADS));
+    }
+
+    @After
+    public void after() throws Exception {
+        if (users != null) {
+            TestUserHelper.deleteUsers(users);
+        }
+    }
+
+    @Test
+    public void signInStorm() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder("signIn " + PROFILE);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService workers = Executors.newFixedThreadPool(WORKER_THREADS);
+        List<Future<?>> scheduled = new ArrayList<>();
+        try {
+            int userIndex = 0;
+            for (int second=0; second < DURATION_SECONDS; second++) {
+                int rate = PROFILE.rateAt(second, DURATION_SECONDS, BASE_RATE, PEAK_RATE);
+                for (int i=0; i < rate; i++) {
+                    TestUser user = users.get(userIndex++ % users.size());
+                    long delayMillis = second * 1000L + i * 1000L / rate;
+                    scheduled.add(scheduler.schedule(() -> workers.submit(() -> recorder.time(() -> user
+                            .getClient(AuthenticationApi.class).signIn(user.getSignIn()).execute())),
+                            delayMillis, TimeUnit.MILLISECONDS));
+                }
+            }
+            // Each scheduled task yields the worker's future; wait for those as well.
+            for (Future<?> future : scheduled) {
+                ((Future<?>) future.get()).get();
+            }
+        } finally {
+            scheduler.shutdownNow();
+            workers.shutdownNow();
+        }
+        LOG.info(recorder.summary());
+
+        assertTrue("No sign-ins succeeded", recorder.getSuccessCount() > 0);
+    }
+}
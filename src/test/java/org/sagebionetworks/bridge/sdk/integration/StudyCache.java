@@ -0,0 +1,168 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.DateTimeUtils;
+import org.joda.time.Duration;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.exceptions.BridgeSDKException;
+import org.sagebionetworks.bridge.rest.model.Study;
+import org.sagebionetworks.bridge.rest.model.VersionHolder;
+
+/**
+ * Client-side cache of Study objects keyed by study identifier. Studies are large and rarely change, so callers that
+ * read the study on a hot path can go through this cache instead of StudiesApi.
+ *
+ * Entries are invalidated by version: updates made through this cache record the version in the VersionHolder
+ * returned by the server, and any cached copy older than the latest known version is re-fetched. Updates made
+ * elsewhere can be reported with {@link #observeVersion(String, long)}. An optional TTL bounds how long an entry is
+ * trusted when updates happen outside of this client.
+ *
+ * Callers receive a copy of the cached study, so they may modify it (e.g. to pass it back to update) without
+ * corrupting the cache.
+ */
+public class StudyCache {
+
+    private static final class Entry {
+        private final Study study;
+        private final long fetchedOn;
+        Entry(Study study, long fetchedOn) {
+            this.study = study;
+            this.fetchedOn = fetchedOn;
+        }
+    }
+
+    private final StudiesApi studiesApi;
+    private final long ttlMillis;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> knownVersions = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile String usersStudyId;
+
+    /** Cache without a TTL; entries are only invalidated by version. */
+    public StudyCache(StudiesApi studiesApi) {
+        this(studiesApi, null);
+    }
+
+    public StudyCache(StudiesApi studiesApi, Duration ttl) {
+        checkNotNull(studiesApi);
+        checkArgument(ttl == null || ttl.getMillis() > 0);
+        this.studiesApi = studiesApi;
+        this.ttlMillis = (ttl == null) ? 0L : ttl.getMillis();
+    }
+
+    public Study getStudy(String identifier) {
+        checkNotNull(identifier);
+        Entry entry = entries.get(identifier);
+        if (isFresh(identifier, entry)) {
+            hits.incrementAndGet();
+            return copy(entry.study);
+        }
+        misses.incrementAndGet();
+        try {
+            return cache(studiesApi.getStudy(identifier).execute().body());
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+    }
+
+    /** The caller's own study. The first call always goes to the server to learn the study identifier. */
+    public Study getUsersStudy() {
+        String identifier = usersStudyId;
+        if (identifier != null) {
+            Entry entry = entries.get(identifier);
+            if (isFresh(identifier, entry)) {
+                hits.incrementAndGet();
+                return copy(entry.study);
+            }
+        }
+        misses.incrementAndGet();
+        try {
+            Study study = studiesApi.getUsersStudy().execute().body();
+            usersStudyId = study.getIdentifier();
+            return cache(study);
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+    }
+
+    public VersionHolder updateStudy(Study study) {
+        checkNotNull(study);
+        try {
+            VersionHolder holder = studiesApi.updateStudy(study.getIdentifier(), study).execute().body();
+            observeVersion(study.getIdentifier(), holder.getVersion());
+            return holder;
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+    }
+
+    public VersionHolder updateUsersStudy(Study study) {
+        checkNotNull(study);
+        try {
+            VersionHolder holder = studiesApi.updateUsersStudy(study).execute().body();
+            observeVersion(study.getIdentifier(), holder.getVersion());
+            return holder;
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Record that the server holds (at least) this version of the study. Any cached copy with a lower version will be
+     * re-fetched on next access.
+     */
+    public void observeVersion(String identifier, long version) {
+        checkNotNull(identifier);
+        knownVersions.merge(identifier, version, Math::max);
+    }
+
+    public void invalidate(String identifier) {
+        entries.remove(identifier);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private boolean isFresh(String identifier, Entry entry) {
+        if (entry == null) {
+            return false;
+        }
+        if (ttlMillis > 0L && DateTimeUtils.currentTimeMillis() - entry.fetchedOn > ttlMillis) {
+            return false;
+        }
+        Long knownVersion = knownVersions.get(identifier);
+        Long cachedVersion = entry.study.getVersion();
+        return knownVersion == null || (cachedVersion != null && cachedVersion >= knownVersion);
+    }
+
+    private Study cache(Study study) {
+        if (study.getVersion() != null) {
+            observeVersion(study.getIdentifier(), study.getVersion());
+        }
+        entries.put(study.getIdentifier(), new Entry(study, DateTimeUtils.currentTimeMillis()));
+        return copy(study);
+    }
+
+    private static Study copy(Study study) {
+        return RestUtils.GSON.fromJson(RestUtils.GSON.toJson(study), Study.class);
+    }
+}
@@ -0,0 +1,108 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.StudyConsentsApi;
+import org.sagebionetworks.bridge.rest.exceptions.BridgeSDKException;
+import org.sagebionetworks.bridge.rest.model.StudyConsent;
+
+/**
+ * Client-side cache of study consent documents, keyed by (subpopGuid, createdOn). Editing a consent creates a new
+ * revision rather than changing an existing one, so revisions are kept until they are evicted by the size bound.
+ *
+ * Which revision is the published one can change, so {@link #getPublishedConsent(String)} keeps a subpopGuid to
+ * createdOn pointer for a short TTL only, and serves the document itself from the revision cache. Publishing through
+ * {@link #publishConsent(String, DateTime)} drops the pointer immediately.
+ *
+ * Callers receive a copy of the cached consent, so they may modify it without corrupting the cache.
+ */
+public class StudyConsentCache {
+
+    private final StudyConsentsApi consentsApi;
+    private final PublishedVersionCache<StudyConsent> cache;
+
+    /**
+     * @param maxRevisions the most consent revisions to keep; the least recently used are evicted first
+     * @param pointerTtl how long to trust which revision of a subpopulation's consent is the published one
+     */
+    public StudyConsentCache(StudyConsentsApi consentsApi, int maxRevisions, Duration pointerTtl) {
+        checkNotNull(consentsApi);
+        this.consentsApi = consentsApi;
+        this.cache = new PublishedVersionCache<>(maxRevisions, pointerTtl);
+    }
+
+    public StudyConsent getConsent(String subpopGuid, DateTime createdOn) {
+        checkNotNull(subpopGuid);
+        checkNotNull(createdOn);
+        StudyConsent consent = cache.getVersion(subpopGuid, createdOn);
+        if (consent != null) {
+            return copy(consent);
+        }
+        try {
+            consent = consentsApi.getConsent(subpopGuid, createdOn).execute().body();
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+        cache.putVersion(subpopGuid, consent.getCreatedOn(), consent);
+        return copy(consent);
+    }
+
+    public StudyConsent getPublishedConsent(String subpopGuid) {
+        checkNotNull(subpopGuid);
+        StudyConsent consent = cache.getPublishedVersion(subpopGuid);
+        if (consent != null) {
+            return copy(consent);
+        }
+        try {
+            consent = consentsApi.getPublishedConsent(subpopGuid).execute().body();
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+        cache.putPublishedVersion(subpopGuid, consent.getCreatedOn(), consent);
+        return copy(consent);
+    }
+
+    public void publishConsent(String subpopGuid, DateTime createdOn) {
+        checkNotNull(subpopGuid);
+        checkNotNull(createdOn);
+        try {
+            consentsApi.publishConsent(subpopGuid, createdOn).execute();
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        } finally {
+            // Even if the call failed, it may have been applied.
+            cache.invalidatePublishedVersion(subpopGuid);
+        }
+    }
+
+    /** Forget which revision of this subpopulation's consent is published, e.g. after another client publishes. */
+    public void invalidatePublishedConsent(String subpopGuid) {
+        cache.invalidatePublishedVersion(subpopGuid);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    private static StudyConsent copy(StudyConsent consent) {
+        return RestUtils.GSON.fromJson(RestUtils.GSON.toJson(consent), StudyConsent.class);
+    }
+}
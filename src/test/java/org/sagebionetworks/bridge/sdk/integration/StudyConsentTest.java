@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import org.joda.time.Duration;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -109,6 +110,20 @@ public class StudyConsentTest {
         
         StudyConsentList studyConsents2 = studyConsentsApi.getAllConsents(subpopGuid).execute().body();
         assertEquals((Integer)3, studyConsents2.getTotal());
+        
+        // The cache serves the published consent until a new revision is published through it.
+        StudyConsentCache cache = new StudyConsentCache(studyConsentsApi, 10, Duration.standardMinutes(1));
+        long publishedMillis = published.getCreatedOn().getMillis();
+        assertEquals(publishedMillis, cache.getPublishedConsent(subpopGuid).getCreatedOn().getMillis());
+        assertEquals(publishedMillis, cache.getPublishedConsent(subpopGuid).getCreatedOn().getMillis());
+        assertEquals(published.getDocumentContent(),
+                cache.getConsent(subpopGuid, published.getCreatedOn()).getDocumentContent());
+        assertEquals(2, cache.getHitCount());
+        
+        cache.publishConsent(subpopGuid, newOne.getCreatedOn());
+        assertEquals(newOne.getCreatedOn().getMillis(),
+                cache.getPublishedConsent(subpopGuid).getCreatedOn().getMillis());
+        assertEquals(2, cache.getMissCount());
     }
 
 }
@@ -11,12 +11,14 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
+import org.joda.time.Duration;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -276,6 +278,38 @@ public class StudyTest {
         studyId = null;
     }
 
+    @Test
+    public void studyCacheInvalidatedByUpdatedVersion() throws Exception {
+        StudiesApi studiesApi = admin.getClient(StudiesApi.class);
+
+        studyId = Tests.randomIdentifier(StudyTest.class);
+        studiesApi.createStudy(Tests.getStudy(studyId, null)).execute();
+
+        StudyCache cache = new StudyCache(studiesApi);
+        Study study = cache.getStudy(studyId);
+        cache.getStudy(studyId);
+        assertEquals(1L, cache.getMissCount());
+        assertEquals(1L, cache.getHitCount());
+
+        // Changes to a returned copy do not leak into the cache.
+        alterStudy(study);
+        assertEquals("Test Study [SDK]", cache.getStudy(studyId).getName());
+
+        // Updating through the cache bumps the known version, so the next read goes back to the server.
+        VersionHolder holder = cache.updateStudy(study);
+        Study updated = cache.getStudy(studyId);
+        assertEquals(2L, cache.getMissCount());
+        assertEquals(holder.getVersion(), updated.getVersion());
+        assertEquals("Altered Test Study [SDK]", updated.getName());
+
+        // An update made elsewhere is picked up once its version is observed.
+        updated.setSponsorName("another-sponsor-name");
+        holder = studiesApi.updateStudy(studyId, updated).execute().body();
+        cache.observeVersion(studyId, holder.getVersion());
+        assertEquals("another-sponsor-name", cache.getStudy(studyId).getSponsorName());
+        assertEquals(3L, cache.getMissCount());
+    }
+
     @Test
     public void researcherCannotAccessAnotherStudy() throws Exception {
         TestUser researcher = TestUserHelper.createAndSignInUser(StudyTest.class, false, Role.RESEARCHER);
@@ -452,6 +486,54 @@ public class StudyTest {
         }
     }
 
+    @Test
+    public void getStudyUploadsInParallelWindows() throws Exception {
+        TestUser developer = TestUserHelper.createAndSignInUser(StudyTest.class, false, Role.DEVELOPER);
+        TestUser user = TestUserHelper.createAndSignInUser(StudyTest.class, true);
+        UploadLister lister = new UploadLister(developer.getClient(StudiesApi.class), 4).withPageSize(1L)
+                .withSlices(4).withMinWindow(Duration.standardMinutes(1));
+        try {
+            DateTime startTime = DateTime.now(DateTimeZone.UTC).minusHours(2);
+            DateTime endTime = startTime.plusHours(4);
+
+            UploadRequest request = new UploadRequest();
+            request.setName("upload.zip");
+            request.setContentType("application/zip");
+            request.setContentLength(100L);
+            request.setContentMd5("ABC");
+
+            ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+            UploadSession uploadSession = usersApi.requestUploadSession(request).execute().body();
+            UploadSession uploadSession2 = usersApi.requestUploadSession(request).execute().body();
+
+            Thread.sleep(1000); // This does depend on a GSI, so pause for a bit.
+
+            // Page size of 1 forces every window with traffic to be split and paged.
+            List<Upload> uploads = lister.list(startTime, endTime).collect(Collectors.toList());
+
+            // Page the serial listing to the end, since the range may hold more than one page of uploads.
+            Set<String> serialIds = new HashSet<>();
+            String offsetKey = null;
+            do {
+                UploadList page = developer.getClient(StudiesApi.class)
+                        .getUploads(startTime, endTime, MAX_PAGE_SIZE, offsetKey).execute().body();
+                page.getItems().forEach(upload -> serialIds.add(upload.getUploadId()));
+                offsetKey = page.getOffsetKey();
+            } while (offsetKey != null);
+            assertEquals(serialIds, uploads.stream().map(Upload::getUploadId).collect(Collectors.toSet()));
+            assertEquals(serialIds.size(), uploads.size());
+            assertTrue(uploads.stream().anyMatch(upload -> upload.getUploadId().equals(uploadSession.getId())));
+            assertTrue(uploads.stream().anyMatch(upload -> upload.getUploadId().equals(uploadSession2.getId())));
+            for (int i=1; i < uploads.size(); i++) {
+                assertFalse(uploads.get(i).getRequestedOn().isBefore(uploads.get(i-1).getRequestedOn()));
+            }
+        } finally {
+            lister.shutdown();
+            user.signOutAndDeleteUser();
+            developer.signOutAndDeleteUser();
+        }
+    }
+
     private Upload getUpload(UploadList results, String guid) {
         for (Upload upload : results.getItems()) {
             if (upload.getUploadId().equals(guid)) {
@@ -0,0 +1,133 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.sagebionetworks.bridge.rest.model.ClientInfo;
+import org.sagebionetworks.bridge.rest.model.Criteria;
+import org.sagebionetworks.bridge.rest.model.StudyParticipant;
+import org.sagebionetworks.bridge.rest.model.Subpopulation;
+
+/**
+ * Predicts, without signing in, which subpopulations the server will include in a user's consent statuses. Follows
+ * the server's criteria rules:
+ *
+ * - app version: if the client reports one, it must be within the min/max versions given for the client's OS (a
+ *   missing bound, or no bounds for the OS, always matches);
+ * - language: if the criteria name one, it must be among the user's languages;
+ * - data groups: the user must be in all of allOfGroups, and in none of noneOfGroups.
+ *
+ * Criteria are compiled once, so each evaluation is a few hash lookups per subpopulation. The result has the same
+ * keys (subpopulation guids) as UserSessionInfo.getConsentStatuses(); whether the user has signed is server state
+ * this can't predict.
+ */
+public final class SubpopulationEvaluator {
+
+    private static final class CompiledCriteria {
+        private final Subpopulation subpopulation;
+        private final Map<String, Integer> minAppVersions;
+        private final Map<String, Integer> maxAppVersions;
+        private final String language;
+        private final Set<String> allOfGroups;
+        private final Set<String> noneOfGroups;
+
+        CompiledCriteria(Subpopulation subpopulation) {
+            this.subpopulation = subpopulation;
+            Criteria criteria = subpopulation.getCriteria();
+            if (criteria == null) {
+                criteria = new Criteria();
+            }
+            this.minAppVersions = copy(criteria.getMinAppVersions());
+            this.maxAppVersions = copy(criteria.getMaxAppVersions());
+            this.language = criteria.getLanguage();
+            this.allOfGroups = toSet(criteria.getAllOfGroups());
+            this.noneOfGroups = toSet(criteria.getNoneOfGroups());
+        }
+
+        boolean matches(String osName, Integer appVersion, Set<String> dataGroups, Collection<String> languages) {
+            if (appVersion != null && osName != null) {
+                Integer min = minAppVersions.get(osName);
+                if (min != null && appVersion < min) {
+                    return false;
+                }
+                Integer max = maxAppVersions.get(osName);
+                if (max != null && appVersion > max) {
+                    return false;
+                }
+            }
+            if (language != null && !languages.contains(language)) {
+                return false;
+            }
+            if (!dataGroups.containsAll(allOfGroups)) {
+                return false;
+            }
+            for (String group : noneOfGroups) {
+                if (dataGroups.contains(group)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final List<CompiledCriteria> compiled;
+
+    public SubpopulationEvaluator(List<Subpopulation> subpopulations) {
+        checkNotNull(subpopulations);
+        compiled = new ArrayList<>(subpopulations.size());
+        for (Subpopulation subpopulation : subpopulations) {
+            compiled.add(new CompiledCriteria(subpopulation));
+        }
+    }
+
+    /** Subpopulations that apply to a user with this client and profile (data groups and languages), by guid. */
+    public Map<String, Subpopulation> getApplicableSubpopulations(ClientInfo clientInfo,
+            StudyParticipant participant) {
+        checkNotNull(participant);
+        return getApplicableSubpopulations(clientInfo, participant.getDataGroups(), participant.getLanguages());
+    }
+
+    public Map<String, Subpopulation> getApplicableSubpopulations(ClientInfo clientInfo,
+            Collection<String> dataGroups, Collection<String> languages) {
+        String osName = (clientInfo == null) ? null : clientInfo.getOsName();
+        Integer appVersion = (clientInfo == null) ? null : clientInfo.getAppVersion();
+        Set<String> groupSet = toSet(dataGroups);
+        Collection<String> languageList = (languages == null) ? Collections.emptyList() : languages;
+
+        Map<String, Subpopulation> applicable = new LinkedHashMap<>();
+        for (CompiledCriteria criteria : compiled) {
+            if (criteria.matches(osName, appVersion, groupSet, languageList)) {
+                applicable.put(criteria.subpopulation.getGuid(), criteria.subpopulation);
+            }
+        }
+        return applicable;
+    }
+
+    /** Guids of the applicable subpopulations the user must consent to before using the study. */
+    public Set<String> getRequiredSubpopulationGuids(ClientInfo clientInfo, StudyParticipant participant) {
+        Set<String> required = new HashSet<>();
+        for (Subpopulation subpopulation : getApplicableSubpopulations(clientInfo, participant).values()) {
+            if (Boolean.TRUE.equals(subpopulation.getRequired())) {
+                required.add(subpopulation.getGuid());
+            }
+        }
+        return required;
+    }
+
+    private static Map<String, Integer> copy(Map<String, Integer> map) {
+        return (map == null) ? Collections.emptyMap() : new HashMap<>(map);
+    }
+
+    private static Set<String> toSet(Collection<String> values) {
+        return (values == null) ? Collections.emptySet() : new HashSet<>(values);
+    }
+}
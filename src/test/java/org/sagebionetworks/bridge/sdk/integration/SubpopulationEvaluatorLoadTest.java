@@ -0,0 +1,149 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.sagebionetworks.bridge.rest.model.ClientInfo;
+import org.sagebionetworks.bridge.rest.model.Criteria;
+import org.sagebionetworks.bridge.rest.model.StudyParticipant;
+import org.sagebionetworks.bridge.rest.model.Subpopulation;
+
+/**
+ * JMH benchmark of {@link SubpopulationEvaluator} over a synthetic population: subpopulations with app version,
+ * language and data group criteria, and users with random clients and profiles. Reports the time to route one user's
+ * consents. The JUnit test spot-checks the routing, then runs the benchmark.
+ */
+@Category(LoadTest.class)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubpopulationEvaluatorLoadTest {
+
+    private static final int USERS = 10000;
+    private static final List<String> OS_NAMES = Lists.newArrayList("Android", "iPhone OS");
+    private static final List<String> LANGUAGES = Lists.newArrayList("en", "es", "fr");
+    private static final List<String> DATA_GROUPS = Lists.newArrayList("sdk-int-1", "sdk-int-2");
+
+    @Param({ "5", "50", "500" })
+    public int subpopulationCount;
+
+    private SubpopulationEvaluator evaluator;
+    private ClientInfo[] clientInfos;
+    private StudyParticipant[] participants;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        List<Subpopulation> subpops = new ArrayList<>();
+        for (int i=0; i < subpopulationCount; i++) {
+            subpops.add(subpopulation(i, random));
+        }
+        evaluator = new SubpopulationEvaluator(subpops);
+
+        clientInfos = new ClientInfo[USERS];
+        participants = new StudyParticipant[USERS];
+        for (int i=0; i < USERS; i++) {
+            ClientInfo info = new ClientInfo();
+            info.setOsName(OS_NAMES.get(random.nextInt(OS_NAMES.size())));
+            info.setAppVersion(random.nextInt(20));
+            clientInfos[i] = info;
+
+            StudyParticipant participant = new StudyParticipant();
+            participant.setLanguages(Lists.newArrayList(LANGUAGES.get(random.nextInt(LANGUAGES.size()))));
+            List<String> groups = new ArrayList<>();
+            for (String group : DATA_GROUPS) {
+                if (random.nextBoolean()) {
+                    groups.add(group);
+                }
+            }
+            participant.setDataGroups(groups);
+            participants[i] = participant;
+        }
+    }
+
+    @Test
+    public void benchmarkSubpopulationEvaluator() throws Exception {
+        subpopulationCount = 5;
+        setup();
+
+        // Subpopulation 0 has no criteria, so it applies to everyone.
+        ClientInfo info = new ClientInfo();
+        info.setOsName("Android");
+        info.setAppVersion(1);
+        StudyParticipant participant = new StudyParticipant();
+        assertTrue(evaluator.getApplicableSubpopulations(info, participant).containsKey("subpop-0"));
+
+        // Subpopulation 2 requires sdk-int-1 and excludes sdk-int-2.
+        participant.setDataGroups(Lists.newArrayList("sdk-int-1"));
+        assertTrue(evaluator.getApplicableSubpopulations(info, participant).containsKey("subpop-2"));
+        participant.setDataGroups(Lists.newArrayList("sdk-int-1", "sdk-int-2"));
+        assertFalse(evaluator.getApplicableSubpopulations(info, participant).containsKey("subpop-2"));
+        participant.setDataGroups(Lists.newArrayList());
+        assertFalse(evaluator.getApplicableSubpopulations(info, participant).containsKey("subpop-2"));
+
+        new Runner(new OptionsBuilder().include(SubpopulationEvaluatorLoadTest.class.getName()).build()).run();
+    }
+
+    @Benchmark
+    public int routeConsents() {
+        int i = next++ % USERS;
+        if (next == USERS) {
+            next = 0;
+        }
+        return evaluator.getRequiredSubpopulationGuids(clientInfos[i], participants[i]).size();
+    }
+
+    // Every subpopulation but the first gets one kind of criteria: an app version range, a language, or data groups.
+    private static Subpopulation subpopulation(int i, Random random) {
+        Criteria criteria = new Criteria();
+        String osName = OS_NAMES.get(random.nextInt(OS_NAMES.size()));
+        switch ((i == 0) ? -1 : i % 3) {
+            case 0:
+                int min = random.nextInt(10);
+                criteria.getMinAppVersions().put(osName, min);
+                criteria.getMaxAppVersions().put(osName, min + random.nextInt(10));
+                break;
+            case 1:
+                criteria.setLanguage(LANGUAGES.get(random.nextInt(LANGUAGES.size())));
+                break;
+            case 2:
+                criteria.setAllOfGroups(Lists.newArrayList(DATA_GROUPS.get(0)));
+                criteria.setNoneOfGroups(Lists.newArrayList(DATA_GROUPS.get(1)));
+                break;
+            default:
+                break;
+        }
+        Subpopulation subpop = new Subpopulation();
+        subpop.setGuid("subpop-" + i);
+        subpop.setName("Subpopulation " + i);
+        subpop.setRequired(random.nextBoolean());
+        subpop.setCriteria(criteria);
+        return subpop;
+    }
+}
@@ -7,7 +7,9 @@ import static org.junit.Assert.fail;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import com.google.common.collect.Lists;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -27,9 +29,12 @@ import org.sagebionetworks.bridge.rest.model.Role;
 import org.sagebionetworks.bridge.rest.model.SignIn;
 import org.sagebionetworks.bridge.rest.model.Subpopulation;
 import org.sagebionetworks.bridge.rest.model.SubpopulationList;
+import org.sagebionetworks.bridge.rest.model.UserSessionInfo;
 
 public class SubpopulationTest {
 
+    private static final List<String> LANGUAGES = Lists.newArrayList("en");
+
     private TestUser admin;
     private TestUser developer;
     
@@ -130,6 +135,13 @@ public class SubpopulationTest {
             updateSubpopulation(subpopulationsApi, subpop1);
             updateSubpopulation(subpopulationsApi, subpop2);
             
+            // The client-side evaluator should predict the same consent statuses as the server.
+            List<Subpopulation> subpops = subpopulationsApi.getSubpopulations().execute().body().getItems();
+            SubpopulationEvaluator evaluator = new SubpopulationEvaluator(subpops);
+            // Other tests may create subpopulations concurrently, so only check the ones this test controls.
+            List<Subpopulation> checked = Lists.newArrayList(findByName(subpops, "Default Consent Group"),
+                    subpop1, subpop2);
+            
             // Manipulate the User-Agent string and see the 412 exception contain different 
             // required subpopulations
             try {
@@ -141,6 +153,7 @@ public class SubpopulationTest {
 
                 assertNotNull(statuses.get(subpop1.getGuid()));
                 assertNull(statuses.get(subpop2.getGuid()));
+                assertPredicted(evaluator, checked, getClientInfoWithVersion("Android", 2), e.getSession());
             }
             try {
                 user.signOut();
@@ -151,6 +164,7 @@ public class SubpopulationTest {
                 Map<String,ConsentStatus> statuses = e.getSession().getConsentStatuses();
                 assertNull(statuses.get(subpop1.getGuid()));
                 assertNotNull(statuses.get(subpop2.getGuid()));
+                assertPredicted(evaluator, checked, getClientInfoWithVersion("Android", 12), e.getSession());
             }
             // Finally... both are returned to an iOS client
             try {
@@ -162,6 +176,7 @@ public class SubpopulationTest {
                 Map<String,ConsentStatus> statuses = e.getSession().getConsentStatuses();
                 assertNotNull(statuses.get(subpop1.getGuid()));
                 assertNotNull(statuses.get(subpop2.getGuid()));
+                assertPredicted(evaluator, checked, getClientInfoWithVersion("iPhone OS", 12), e.getSession());
             }
         } finally {
             user.signOutAndDeleteUser();
@@ -175,6 +190,18 @@ public class SubpopulationTest {
         }
     }
     
+    // The participant's data groups come from the session; languages are the ones TestUserHelper signs up with.
+    private void assertPredicted(SubpopulationEvaluator evaluator, List<Subpopulation> subpops,
+            ClientInfo clientInfo, UserSessionInfo session) {
+        Map<String,ConsentStatus> statuses = session.getConsentStatuses();
+        Set<String> predicted = evaluator.getApplicableSubpopulations(clientInfo, session.getDataGroups(),
+                LANGUAGES).keySet();
+        for (Subpopulation subpop : subpops) {
+            assertEquals("Subpopulation " + subpop.getName(), statuses.containsKey(subpop.getGuid()),
+                    predicted.contains(subpop.getGuid()));
+        }
+    }
+    
     private ClientManager clientManager(SignIn signIn, ClientInfo clientInfo) {
         return new ClientManager.Builder()
                 .withSignIn(signIn)
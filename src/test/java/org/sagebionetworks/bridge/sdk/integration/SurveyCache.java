@@ -0,0 +1,101 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.SurveysApi;
+import org.sagebionetworks.bridge.rest.exceptions.BridgeSDKException;
+import org.sagebionetworks.bridge.rest.model.Survey;
+
+/**
+ * Client-side cache of published surveys. A survey version, identified by (guid, createdOn), cannot be changed once
+ * it is published (updates fail with PublishedSurveyException), so published versions are kept until they are evicted
+ * by the size bound. Unpublished versions are never cached.
+ *
+ * Which version is the published one can change, so {@link #getPublishedSurveyVersion(String)} keeps a guid to
+ * createdOn pointer for a short TTL only, and serves the survey itself from the version cache.
+ *
+ * Callers receive a copy of the cached survey, so they may modify it without corrupting the cache.
+ */
+public class SurveyCache {
+
+    private final SurveysApi surveysApi;
+    private final ForConsentedUsersApi usersApi;
+    private final PublishedVersionCache<Survey> cache;
+
+    /**
+     * @param maxVersions the most survey versions to keep; the least recently used are evicted first
+     * @param pointerTtl how long to trust which version of a survey is the published one
+     */
+    public SurveyCache(SurveysApi surveysApi, ForConsentedUsersApi usersApi, int maxVersions, Duration pointerTtl) {
+        checkNotNull(surveysApi);
+        checkNotNull(usersApi);
+        this.surveysApi = surveysApi;
+        this.usersApi = usersApi;
+        this.cache = new PublishedVersionCache<>(maxVersions, pointerTtl);
+    }
+
+    public Survey getSurvey(String guid, DateTime createdOn) {
+        checkNotNull(guid);
+        checkNotNull(createdOn);
+        Survey survey = cache.getVersion(guid, createdOn);
+        if (survey != null) {
+            return copy(survey);
+        }
+        try {
+            survey = surveysApi.getSurvey(guid, createdOn).execute().body();
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+        if (Boolean.TRUE.equals(survey.getPublished())) {
+            cache.putVersion(guid, survey.getCreatedOn(), survey);
+        }
+        return copy(survey);
+    }
+
+    public Survey getPublishedSurveyVersion(String guid) {
+        checkNotNull(guid);
+        Survey survey = cache.getPublishedVersion(guid);
+        if (survey != null) {
+            return copy(survey);
+        }
+        try {
+            survey = usersApi.getPublishedSurveyVersion(guid).execute().body();
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+        cache.putPublishedVersion(guid, survey.getCreatedOn(), survey);
+        return copy(survey);
+    }
+
+    /** Forget which version of this survey is published, e.g. after publishing a new version. */
+    public void invalidatePublishedVersion(String guid) {
+        cache.invalidatePublishedVersion(guid);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    private static Survey copy(Survey survey) {
+        return RestUtils.GSON.fromJson(RestUtils.GSON.toJson(survey), Survey.class);
+    }
+}
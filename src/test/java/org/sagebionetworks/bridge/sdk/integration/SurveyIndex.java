@@ -0,0 +1,135 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sagebionetworks.bridge.rest.model.Constraints;
+import org.sagebionetworks.bridge.rest.model.DataType;
+import org.sagebionetworks.bridge.rest.model.Survey;
+import org.sagebionetworks.bridge.rest.model.SurveyElement;
+import org.sagebionetworks.bridge.rest.model.SurveyInfoScreen;
+import org.sagebionetworks.bridge.rest.model.SurveyQuestion;
+import org.sagebionetworks.bridge.rest.model.SurveyRule;
+
+/**
+ * Index over the elements of a survey, built once, for constant-time lookup of elements by identifier or guid,
+ * questions by data type, and the element each rule skips to. Rules whose skipTo target doesn't exist or doesn't come
+ * after the rule's question are collected as unresolved, so rule validation is a single pass over the survey.
+ *
+ * The index reflects the survey when it was built; build a new one if the survey's elements change.
+ */
+public final class SurveyIndex {
+
+    private final List<SurveyElement> elements;
+    private final Map<String, Integer> positionsByIdentifier = new HashMap<>();
+    private final Map<String, SurveyElement> elementsByGuid = new HashMap<>();
+    private final Map<DataType, List<SurveyQuestion>> questionsByType = new EnumMap<>(DataType.class);
+    private final List<SurveyInfoScreen> infoScreens = new ArrayList<>();
+    private final Map<SurveyRule, SurveyElement> skipTargets = new IdentityHashMap<>();
+    private final List<SurveyRule> unresolvedRules = new ArrayList<>();
+
+    public static SurveyIndex of(Survey survey) {
+        checkNotNull(survey);
+        return new SurveyIndex(survey.getElements());
+    }
+
+    private SurveyIndex(List<SurveyElement> elements) {
+        this.elements = Collections.unmodifiableList(new ArrayList<>(elements));
+        for (int i=0; i < this.elements.size(); i++) {
+            SurveyElement element = this.elements.get(i);
+            if (element.getIdentifier() != null) {
+                positionsByIdentifier.putIfAbsent(element.getIdentifier(), i);
+            }
+            if (element.getGuid() != null) {
+                elementsByGuid.put(element.getGuid(), element);
+            }
+            if (element instanceof SurveyQuestion) {
+                Constraints constraints = ((SurveyQuestion) element).getConstraints();
+                if (constraints != null && constraints.getDataType() != null) {
+                    questionsByType.computeIfAbsent(constraints.getDataType(), type -> new ArrayList<>())
+                            .add((SurveyQuestion) element);
+                }
+            } else if (element instanceof SurveyInfoScreen) {
+                infoScreens.add((SurveyInfoScreen) element);
+            }
+        }
+        // Resolve rules once all positions are known.
+        for (int i=0; i < this.elements.size(); i++) {
+            for (SurveyRule rule : getRules(this.elements.get(i))) {
+                if (rule.getSkipTo() == null) {
+                    continue;
+                }
+                Integer target = positionsByIdentifier.get(rule.getSkipTo());
+                if (target == null || target <= i) {
+                    unresolvedRules.add(rule);
+                } else {
+                    skipTargets.put(rule, this.elements.get(target));
+                }
+            }
+        }
+    }
+
+    public List<SurveyElement> getElements() {
+        return elements;
+    }
+
+    public SurveyElement getElement(String identifier) {
+        Integer position = positionsByIdentifier.get(identifier);
+        return (position == null) ? null : elements.get(position);
+    }
+
+    public SurveyElement getElementByGuid(String guid) {
+        return elementsByGuid.get(guid);
+    }
+
+    /** Position of the element in the survey, or -1 if there is no element with this identifier. */
+    public int indexOf(String identifier) {
+        Integer position = positionsByIdentifier.get(identifier);
+        return (position == null) ? -1 : position;
+    }
+
+    /** The constraints of the question with this identifier, or null if there is no such question. */
+    public Constraints getConstraints(String identifier) {
+        SurveyElement element = getElement(identifier);
+        return (element instanceof SurveyQuestion) ? ((SurveyQuestion) element).getConstraints() : null;
+    }
+
+    public List<SurveyQuestion> getQuestions(DataType dataType) {
+        List<SurveyQuestion> questions = questionsByType.get(dataType);
+        return (questions == null) ? Collections.emptyList() : Collections.unmodifiableList(questions);
+    }
+
+    public List<SurveyInfoScreen> getInfoScreens() {
+        return Collections.unmodifiableList(infoScreens);
+    }
+
+    /**
+     * The element this rule skips to, or null if the rule doesn't skip (e.g. it ends the survey), isn't part of this
+     * survey, or is unresolved.
+     */
+    public SurveyElement getSkipTarget(SurveyRule rule) {
+        return skipTargets.get(rule);
+    }
+
+    /** Rules that skip to an element that doesn't exist, or that doesn't come after the rule's question. */
+    public List<SurveyRule> getUnresolvedRules() {
+        return Collections.unmodifiableList(unresolvedRules);
+    }
+
+    private static List<SurveyRule> getRules(SurveyElement element) {
+        if (element instanceof SurveyQuestion) {
+            Constraints constraints = ((SurveyQuestion) element).getConstraints();
+            if (constraints != null && constraints.getRules() != null) {
+                return constraints.getRules();
+            }
+        }
+        return Collections.emptyList();
+    }
+}
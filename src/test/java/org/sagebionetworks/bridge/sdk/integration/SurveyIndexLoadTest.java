@@ -0,0 +1,103 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.sagebionetworks.bridge.rest.model.Constraints;
+import org.sagebionetworks.bridge.rest.model.Survey;
+import org.sagebionetworks.bridge.rest.model.SurveyElement;
+import org.sagebionetworks.bridge.rest.model.SurveyQuestion;
+import org.sagebionetworks.bridge.rest.model.SurveyRule;
+
+/**
+ * JMH benchmark of rule validation on large surveys (TestSurvey.getLargeSurvey, one rule per question): resolving
+ * every rule's skipTo target with a linear scan of the elements, against building a {@link SurveyIndex}. The JUnit
+ * test checks both find the same targets, then runs the benchmarks.
+ */
+@Category(LoadTest.class)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SurveyIndexLoadTest {
+
+    private static final int OPTIONS_PER_QUESTION = 10;
+
+    @Param({ "10", "100", "1000" })
+    public int questionCount;
+
+    private Survey survey;
+
+    @Setup
+    public void setup() {
+        survey = TestSurvey.getLargeSurvey(SurveyIndexLoadTest.class, questionCount, OPTIONS_PER_QUESTION,
+                questionCount);
+    }
+
+    @Test
+    public void benchmarkSurveyIndex() throws Exception {
+        questionCount = 100;
+        setup();
+        assertEquals(linearRuleValidation(), indexedRuleValidation());
+
+        new Runner(new OptionsBuilder().include(SurveyIndexLoadTest.class.getName()).build()).run();
+    }
+
+    /** Resolves each rule by scanning the elements, as SurveyTest.getConstraints used to. O(rules * elements). */
+    @Benchmark
+    public int linearRuleValidation() {
+        int resolved = 0;
+        List<SurveyElement> elements = survey.getElements();
+        for (SurveyElement element : elements) {
+            for (SurveyRule rule : getRules(element)) {
+                for (SurveyElement target : elements) {
+                    if (target.getIdentifier().equals(rule.getSkipTo())) {
+                        resolved++;
+                        break;
+                    }
+                }
+            }
+        }
+        return resolved;
+    }
+
+    /** Builds the index, which resolves every rule in one pass. O(rules + elements). */
+    @Benchmark
+    public int indexedRuleValidation() {
+        SurveyIndex index = SurveyIndex.of(survey);
+        int resolved = 0;
+        for (SurveyElement element : index.getElements()) {
+            for (SurveyRule rule : getRules(element)) {
+                if (index.getSkipTarget(rule) != null) {
+                    resolved++;
+                }
+            }
+        }
+        return resolved;
+    }
+
+    private static List<SurveyRule> getRules(SurveyElement element) {
+        Constraints constraints = ((SurveyQuestion) element).getConstraints();
+        return constraints.getRules();
+    }
+}
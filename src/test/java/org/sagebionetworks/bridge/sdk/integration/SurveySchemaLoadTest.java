@@ -0,0 +1,142 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.SurveysApi;
+import org.sagebionetworks.bridge.rest.api.UploadSchemasApi;
+import org.sagebionetworks.bridge.rest.exceptions.EntityNotFoundException;
+import org.sagebionetworks.bridge.rest.model.GuidCreatedOnVersionHolder;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.Survey;
+import org.sagebionetworks.bridge.rest.model.UploadSchema;
+import org.sagebionetworks.bridge.sdk.integration.TestUserHelper.TestUser;
+
+/**
+ * Publishing a survey creates or revises an upload schema with the survey's identifier (see SurveySchemaTest). This
+ * publishes surveys of increasing size (TestSurvey.getLargeSurvey) and polls getMostRecentUploadSchema until the
+ * schema for the published survey version is visible. Logs publish latency, publish-to-schema-visible latency, and
+ * schema field count against survey element count as CSV rows.
+ *
+ * Configure with system properties: surveySchema.questionCounts (comma-separated), surveySchema.optionsPerQuestion,
+ * surveySchema.repetitions, surveySchema.visibilityTimeoutMillis.
+ */
+@Category(LoadTest.class)
+public class SurveySchemaLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(SurveySchemaLoadTest.class);
+
+    private static final String QUESTION_COUNTS = System.getProperty("surveySchema.questionCounts", "10,100,500");
+    private static final int OPTIONS_PER_QUESTION = Integer.getInteger("surveySchema.optionsPerQuestion", 10);
+    private static final int REPETITIONS = Integer.getInteger("surveySchema.repetitions", 3);
+    private static final long VISIBILITY_TIMEOUT_MILLIS = Long.getLong("surveySchema.visibilityTimeoutMillis",
+            30000L);
+    private static final long POLL_INTERVAL_MILLIS = 100L;
+
+    private TestUser developer;
+    private List<GuidCreatedOnVersionHolder> surveysToDelete;
+    private List<String> schemasToDelete;
+
+    @Before
+    public void before() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(SurveySchemaLoadTest.class, false, Role.DEVELOPER);
+        surveysToDelete = new ArrayList<>();
+        schemasToDelete = new ArrayList<>();
+    }
+
+    @After
+    public void after() throws Exception {
+        TestUser admin = TestUserHelper.getSignedInAdmin();
+        try {
+            SurveysApi adminSurveysApi = admin.getClient(SurveysApi.class);
+            for (GuidCreatedOnVersionHolder keys : surveysToDelete) {
+                try {
+                    adminSurveysApi.deleteSurvey(keys.getGuid(), keys.getCreatedOn(), true).execute();
+                } catch (RuntimeException e) {
+                    LOG.error("Error deleting survey=" + keys + ": " + e.getMessage(), e);
+                }
+            }
+            ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+            for (String schemaId : schemasToDelete) {
+                try {
+                    adminsApi.deleteAllRevisionsOfUploadSchema(Tests.TEST_KEY, schemaId).execute();
+                } catch (EntityNotFoundException e) {
+                    // Publishing may have failed before the schema was created.
+                }
+            }
+        } finally {
+            if (developer != null) {
+                developer.signOutAndDeleteUser();
+            }
+        }
+    }
+
+    @Test
+    public void publishToSchemaLatency() throws Exception {
+        SurveysApi surveysApi = developer.getClient(SurveysApi.class);
+        UploadSchemasApi schemasApi = developer.getClient(UploadSchemasApi.class);
+
+        LOG.info("questions,elements,schemaFields,publishP50Millis,visibleP50Millis,visibleMaxMillis,timeouts");
+        for (String countString : QUESTION_COUNTS.split(",")) {
+            int questionCount = Integer.parseInt(countString.trim());
+            LatencyRecorder publishes = new LatencyRecorder("publishSurvey");
+            LatencyRecorder visibility = new LatencyRecorder("publish to schema visible");
+            int elementCount = 0;
+            int fieldCount = 0;
+            int timeouts = 0;
+
+            for (int i=0; i < REPETITIONS; i++) {
+                Survey survey = TestSurvey.getLargeSurvey(SurveySchemaLoadTest.class, questionCount,
+                        OPTIONS_PER_QUESTION, questionCount);
+                elementCount = survey.getElements().size();
+                GuidCreatedOnVersionHolder keys = surveysApi.createSurvey(survey).execute().body();
+                surveysToDelete.add(keys);
+                schemasToDelete.add(survey.getIdentifier());
+
+                long start = System.nanoTime();
+                publishes.timeOrThrow(() -> surveysApi.publishSurvey(keys.getGuid(), keys.getCreatedOn(), false)
+                        .execute());
+                UploadSchema schema = awaitSchema(schemasApi, survey.getIdentifier(), keys);
+                if (schema == null) {
+                    timeouts++;
+                } else {
+                    visibility.recordSuccess(start, System.nanoTime());
+                    fieldCount = schema.getFieldDefinitions().size();
+                }
+            }
+            LOG.info(String.format("%d,%d,%d,%.1f,%.1f,%.1f,%d", questionCount, elementCount, fieldCount,
+                    publishes.getPercentileMillis(50), visibility.getPercentileMillis(50),
+                    visibility.getPercentileMillis(100), timeouts));
+            assertEquals("Schemas did not appear within " + VISIBILITY_TIMEOUT_MILLIS + "ms", 0, timeouts);
+        }
+    }
+
+    // Poll until the most recent schema revision is the one generated from this survey version.
+    private UploadSchema awaitSchema(UploadSchemasApi schemasApi, String schemaId, GuidCreatedOnVersionHolder keys)
+            throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(VISIBILITY_TIMEOUT_MILLIS);
+        while (System.nanoTime() < deadline) {
+            try {
+                UploadSchema schema = schemasApi.getMostRecentUploadSchema(schemaId).execute().body();
+                if (keys.getGuid().equals(schema.getSurveyGuid())
+                        && keys.getCreatedOn().isEqual(schema.getSurveyCreatedOn())) {
+                    return schema;
+                }
+            } catch (EntityNotFoundException e) {
+                // Not created yet.
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+        return null;
+    }
+}
@@ -14,6 +14,7 @@ import static org.sagebionetworks.bridge.sdk.integration.TestSurvey.DECIMAL_ID;
 import static org.sagebionetworks.bridge.sdk.integration.TestSurvey.DURATION_ID;
 import static org.sagebionetworks.bridge.sdk.integration.TestSurvey.INTEGER_ID;
 import static org.sagebionetworks.bridge.sdk.integration.TestSurvey.MULTIVALUE_ID;
+import static org.sagebionetworks.bridge.sdk.integration.TestSurvey.STRING_ID;
 import static org.sagebionetworks.bridge.sdk.integration.TestSurvey.TIME_ID;
 
 import java.util.HashSet;
@@ -23,6 +24,7 @@ import java.util.Set;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
+import org.joda.time.Duration;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -214,16 +216,20 @@ public class SurveyTest {
         List<SurveyElement> questions = survey.getElements();
         assertEquals("Type is SurveyQuestion.", SurveyQuestion.class, questions.get(0).getClass());
 
-        assertEquals("Type is BooleanConstraints.", DataType.BOOLEAN, getConstraints(survey, BOOLEAN_ID).getDataType());
-        assertEquals("Type is DateConstraints", DataType.DATE, getConstraints(survey, DATE_ID).getDataType());
-        assertEquals("Type is DateTimeConstraints", DataType.DATETIME, getConstraints(survey, DATETIME_ID).getDataType());
-        assertEquals("Type is DecimalConstraints", DataType.DECIMAL, getConstraints(survey, DECIMAL_ID).getDataType());
-        Constraints intCon = getConstraints(survey, INTEGER_ID);
+        SurveyIndex index = SurveyIndex.of(survey);
+        assertEquals("Type is BooleanConstraints.", DataType.BOOLEAN, index.getConstraints(BOOLEAN_ID).getDataType());
+        assertEquals("Type is DateConstraints", DataType.DATE, index.getConstraints(DATE_ID).getDataType());
+        assertEquals("Type is DateTimeConstraints", DataType.DATETIME, index.getConstraints(DATETIME_ID).getDataType());
+        assertEquals("Type is DecimalConstraints", DataType.DECIMAL, index.getConstraints(DECIMAL_ID).getDataType());
+        Constraints intCon = index.getConstraints(INTEGER_ID);
         assertEquals("Type is IntegerConstraints", DataType.INTEGER, intCon.getDataType());
         assertEquals("Has a rule of type SurveyRule", SurveyRule.class, intCon.getRules().get(0).getClass());
-        assertEquals("Type is DurationConstraints", DataType.DURATION, getConstraints(survey, DURATION_ID).getDataType());
-        assertEquals("Type is TimeConstraints", DataType.TIME, getConstraints(survey, TIME_ID).getDataType());
-        MultiValueConstraints multiCon = (MultiValueConstraints)getConstraints(survey, MULTIVALUE_ID);
+        assertEquals("Rule skips to the string question", STRING_ID,
+                index.getSkipTarget(intCon.getRules().get(0)).getIdentifier());
+        assertTrue("All rules resolve", index.getUnresolvedRules().isEmpty());
+        assertEquals("Type is DurationConstraints", DataType.DURATION, index.getConstraints(DURATION_ID).getDataType());
+        assertEquals("Type is TimeConstraints", DataType.TIME, index.getConstraints(TIME_ID).getDataType());
+        MultiValueConstraints multiCon = (MultiValueConstraints)index.getConstraints(MULTIVALUE_ID);
         assertTrue("Type is MultiValueConstraints", multiCon.getAllowMultiple());
         assertEquals("Type is SurveyQuestionOption", SurveyQuestionOption.class, multiCon.getEnumeration().get(0).getClass());
 
@@ -243,7 +249,7 @@ public class SurveyTest {
         GuidCreatedOnVersionHolder key = createSurvey(surveysApi, TestSurvey.getSurvey(SurveyTest.class));
         Survey survey = surveysApi.getSurvey(key.getGuid(), key.getCreatedOn()).execute().body();
 
-        DateTimeConstraints dateCon = (DateTimeConstraints)getConstraints(survey, DATETIME_ID);
+        DateTimeConstraints dateCon = (DateTimeConstraints)SurveyIndex.of(survey).getConstraints(DATETIME_ID);
         DateTime earliest = dateCon.getEarliestValue();
         DateTime latest = dateCon.getLatestValue();
         assertNotNull("Earliest has been set", earliest);
@@ -270,6 +276,32 @@ public class SurveyTest {
         }
     }
 
+    @Test
+    public void surveyCacheServesPublishedVersions() throws Exception {
+        SurveysApi surveysApi = developer.getClient(SurveysApi.class);
+        SurveyCache cache = new SurveyCache(surveysApi, user.getClient(ForConsentedUsersApi.class), 10,
+                Duration.standardMinutes(1));
+
+        GuidCreatedOnVersionHolder keys = createSurvey(surveysApi, TestSurvey.getSurvey(SurveyTest.class));
+        
+        // Unpublished versions can still change, so they are not cached.
+        cache.getSurvey(keys.getGuid(), keys.getCreatedOn());
+        cache.getSurvey(keys.getGuid(), keys.getCreatedOn());
+        assertEquals(2L, cache.getMissCount());
+        
+        surveysApi.publishSurvey(keys.getGuid(), keys.getCreatedOn(), false).execute();
+        Survey published = cache.getPublishedSurveyVersion(keys.getGuid());
+        assertEquals(keys.getCreatedOn(), published.getCreatedOn());
+        assertEquals(3L, cache.getMissCount());
+        
+        // Both lookups are now served from the cache, and callers can't alter the cached copy.
+        published.setName("Altered name");
+        assertEquals("General Blood Pressure Survey", cache.getPublishedSurveyVersion(keys.getGuid()).getName());
+        cache.getSurvey(keys.getGuid(), keys.getCreatedOn());
+        assertEquals(3L, cache.getMissCount());
+        assertEquals(2L, cache.getHitCount());
+    }
+
     @Test
     public void canGetMostRecentlyPublishedSurveyWithoutTimestamp() throws Exception {
         SurveysApi surveysApi = developer.getClient(SurveysApi.class);
@@ -446,7 +478,7 @@ public class SurveyTest {
         GuidCreatedOnVersionHolder keys = createSurvey(surveysApi, survey);
         
         Survey retrieved = surveysApi.getSurvey(keys.getGuid(), keys.getCreatedOn()).execute().body();
-        SurveyRule retrievedRule = getConstraints(retrieved, "bar").getRules().get(0);
+        SurveyRule retrievedRule = SurveyIndex.of(retrieved).getConstraints("bar").getRules().get(0);
         
         assertEquals(Boolean.TRUE, retrievedRule.getEndSurvey());
         assertEquals("true", retrievedRule.getValue());
@@ -454,15 +486,6 @@ public class SurveyTest {
         assertNull(retrievedRule.getSkipTo());
     }
     
-    private Constraints getConstraints(Survey survey, String id) {
-        for (SurveyElement element : survey.getElements()) {
-            if (element.getIdentifier().equals(id)) {
-                return ((SurveyQuestion)element).getConstraints();
-            }
-        }
-        return null;
-    }
-
     private void containsAll(List<Survey> surveys, GuidCreatedOnVersionHolder... keys) {
         // The server may have more surveys than the ones we created, if more than one person is running tests
         // (unit or integration), or if there are persistent tests unrelated to this test.
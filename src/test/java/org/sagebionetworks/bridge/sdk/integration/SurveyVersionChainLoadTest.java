@@ -0,0 +1,133 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.SurveysApi;
+import org.sagebionetworks.bridge.rest.model.GuidCreatedOnVersionHolder;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.SurveyList;
+import org.sagebionetworks.bridge.sdk.integration.TestUserHelper.TestUser;
+
+/**
+ * Measures how getAllVersionsOfSurvey, getMostRecentSurveys and getPublishedSurveys scale as surveys accumulate
+ * versions. For each survey count and chain length, builds that many surveys with that many versions each (through
+ * versionSurvey, publishing every Nth version), then logs latency and payload size of the three listing calls as CSV
+ * rows. The study's other surveys are included in the study-wide listings, so run against a quiet study.
+ *
+ * Configure with system properties: versionChain.surveyCounts and versionChain.chainLengths (comma-separated),
+ * versionChain.publishEvery, versionChain.repetitions.
+ */
+@Category(LoadTest.class)
+public class SurveyVersionChainLoadTest {
+    private static final Logger LOG = LoggerFactory.getLogger(SurveyVersionChainLoadTest.class);
+
+    private static final String SURVEY_COUNTS = System.getProperty("versionChain.surveyCounts", "1,5");
+    private static final String CHAIN_LENGTHS = System.getProperty("versionChain.chainLengths", "5,50,200");
+    private static final int PUBLISH_EVERY = Integer.getInteger("versionChain.publishEvery", 10);
+    private static final int REPETITIONS = Integer.getInteger("versionChain.repetitions", 5);
+
+    private TestUser developer;
+    private List<GuidCreatedOnVersionHolder> surveysToDelete;
+
+    @Before
+    public void before() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(SurveyVersionChainLoadTest.class, false, Role.DEVELOPER);
+        surveysToDelete = new ArrayList<>();
+    }
+
+    @After
+    public void after() throws Exception {
+        try {
+            deleteSurveys();
+        } finally {
+            if (developer != null) {
+                developer.signOutAndDeleteUser();
+            }
+        }
+    }
+
+    @Test
+    public void versionChainScaling() throws Exception {
+        SurveysApi surveysApi = developer.getClient(SurveysApi.class);
+
+        LOG.info("surveys,chainLength,call,items,payloadBytes,p50Millis,p90Millis,maxMillis,errors");
+        for (String surveyCountString : SURVEY_COUNTS.split(",")) {
+            int surveyCount = Integer.parseInt(surveyCountString.trim());
+            for (String chainLengthString : CHAIN_LENGTHS.split(",")) {
+                int chainLength = Integer.parseInt(chainLengthString.trim());
+
+                String guid = null;
+                for (int i=0; i < surveyCount; i++) {
+                    guid = buildChain(surveysApi, chainLength);
+                }
+                final String lastGuid = guid;
+                measure(surveyCount, chainLength, "getAllVersionsOfSurvey",
+                        () -> surveysApi.getAllVersionsOfSurvey(lastGuid).execute().body());
+                measure(surveyCount, chainLength, "getMostRecentSurveys",
+                        () -> surveysApi.getMostRecentSurveys().execute().body());
+                measure(surveyCount, chainLength, "getPublishedSurveys",
+                        () -> surveysApi.getPublishedSurveys().execute().body());
+                deleteSurveys();
+            }
+        }
+    }
+
+    // Creates a survey and versions it until the chain has the given length. Returns the survey's guid.
+    private String buildChain(SurveysApi surveysApi, int chainLength) throws Exception {
+        GuidCreatedOnVersionHolder keys = surveysApi.createSurvey(TestSurvey.getSurvey(
+                SurveyVersionChainLoadTest.class)).execute().body();
+        surveysToDelete.add(keys);
+        for (int i=1; i < chainLength; i++) {
+            if (i % PUBLISH_EVERY == 0) {
+                surveysApi.publishSurvey(keys.getGuid(), keys.getCreatedOn(), false).execute();
+            }
+            keys = surveysApi.versionSurvey(keys.getGuid(), keys.getCreatedOn()).execute().body();
+            surveysToDelete.add(keys);
+        }
+        // Publish the head so every survey appears in getPublishedSurveys.
+        surveysApi.publishSurvey(keys.getGuid(), keys.getCreatedOn(), false).execute();
+        return keys.getGuid();
+    }
+
+    private void measure(int surveyCount, int chainLength, String call, Callable<SurveyList> request) {
+        LatencyRecorder recorder = new LatencyRecorder(call);
+        SurveyList list = null;
+        for (int i=0; i < REPETITIONS; i++) {
+            SurveyList result = recorder.time(request);
+            if (result != null) {
+                list = result;
+            }
+        }
+        int items = (list == null) ? 0 : list.getItems().size();
+        int payloadBytes = (list == null) ? 0 : RestUtils.GSON.toJson(list).getBytes(UTF_8).length;
+        LOG.info(String.format("%d,%d,%s,%d,%d,%.1f,%.1f,%.1f,%d", surveyCount, chainLength, call, items,
+                payloadBytes, recorder.getPercentileMillis(50), recorder.getPercentileMillis(90),
+                recorder.getPercentileMillis(100), recorder.getErrorCount()));
+        assertEquals(call + " failed: " + recorder.getErrorCounts(), 0, recorder.getErrorCount());
+    }
+
+    private void deleteSurveys() throws Exception {
+        SurveysApi adminSurveysApi = TestUserHelper.getSignedInAdmin().getClient(SurveysApi.class);
+        for (GuidCreatedOnVersionHolder keys : surveysToDelete) {
+            try {
+                adminSurveysApi.deleteSurvey(keys.getGuid(), keys.getCreatedOn(), true).execute();
+            } catch (RuntimeException e) {
+                LOG.error("Error deleting survey=" + keys + ": " + e.getMessage(), e);
+            }
+        }
+        surveysToDelete.clear();
+    }
+}
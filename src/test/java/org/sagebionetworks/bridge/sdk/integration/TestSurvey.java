@@ -203,5 +203,79 @@ public class TestSurvey {
 
         return survey;
     }
+    
+    /**
+     * A survey for stress testing, with the given number of questions. Questions alternate between multi-value
+     * questions (each with optionsPerQuestion options, all with images), integer questions and string questions.
+     * The rules are spread over the multi-value and integer questions, each skipping forward to a later question.
+     * Question identifiers are "q0", "q1", and so on.
+     */
+    public static Survey getLargeSurvey(Class<?> cls, int questionCount, int optionsPerQuestion, int ruleCount) {
+        Survey survey = new Survey();
+        survey.setName("Large Survey (" + questionCount + " questions)");
+        survey.setIdentifier(Tests.randomIdentifier(cls));
+        
+        List<SurveyQuestion> questions = Lists.newArrayList();
+        List<SurveyQuestion> ruleQuestions = Lists.newArrayList();
+        for (int i=0; i < questionCount; i++) {
+            SurveyQuestion question = new SurveyQuestion();
+            question.setIdentifier("q" + i);
+            question.setType("SurveyQuestion");
+            switch (i % 3) {
+                case 0:
+                    MultiValueConstraints mvc = new MultiValueConstraints();
+                    List<SurveyQuestionOption> options = Lists.newArrayList();
+                    for (int j=0; j < optionsPerQuestion; j++) {
+                        options.add(option("Option " + j, "Detail for option " + j, Integer.toString(j),
+                                image("http://option" + j + ".svg", 600, 300)));
+                    }
+                    mvc.setEnumeration(options);
+                    mvc.setAllowOther(false);
+                    mvc.setAllowMultiple(true);
+                    mvc.setDataType(DataType.STRING);
+                    mvc.setRules(Lists.newArrayList());
+                    question.setConstraints(mvc);
+                    question.setUiHint(UIHint.LIST);
+                    question.setPrompt("Which of these apply to you? (" + i + ")");
+                    break;
+                case 1:
+                    IntegerConstraints ic = new IntegerConstraints();
+                    ic.setMinValue(0);
+                    ic.setMaxValue(100);
+                    ic.setDataType(DataType.INTEGER);
+                    ic.setRules(Lists.newArrayList());
+                    question.setConstraints(ic);
+                    question.setUiHint(UIHint.NUMBERFIELD);
+                    question.setPrompt("How many times did this happen? (" + i + ")");
+                    break;
+                default:
+                    StringConstraints sc = new StringConstraints();
+                    sc.setMinLength(0);
+                    sc.setMaxLength(255);
+                    sc.setDataType(DataType.STRING);
+                    question.setConstraints(sc);
+                    question.setUiHint(UIHint.TEXTFIELD);
+                    question.setPrompt("Please describe it. (" + i + ")");
+                    break;
+            }
+            questions.add(question);
+            // Rules need a later question to skip to.
+            if (i % 3 != 2 && i < questionCount - 1) {
+                ruleQuestions.add(question);
+            }
+        }
+        for (int i=0; i < ruleCount && !ruleQuestions.isEmpty(); i++) {
+            SurveyQuestion question = ruleQuestions.get(i % ruleQuestions.size());
+            int index = questions.indexOf(question);
+            // Skip ahead by a varying distance so targets are spread over the rest of the survey.
+            int target = index + 1 + (i / ruleQuestions.size()) % (questionCount - index - 1);
+            String value = Integer.toString(i % Math.max(1, optionsPerQuestion));
+            Operator operator = (question.getConstraints() instanceof MultiValueConstraints) ? Operator.EQ
+                    : Operator.GE;
+            question.getConstraints().getRules().add(rule(operator, value, "q" + target));
+        }
+        survey.getElements().addAll(questions);
+        return survey;
+    }
 
 }
@@ -18,6 +18,11 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -32,9 +37,15 @@ public class TestUserHelper {
     }
     
     public static class TestUser {
+        private final Object signInLock = new Object();
+        private final AtomicInteger signInCount = new AtomicInteger();
         private SignIn signIn;
         private ClientManager manager;
-        private UserSessionInfo userSession;
+        private volatile UserSessionInfo userSession;
+        // Incremented by each sign-in attempt, whatever its outcome. Written under signInLock.
+        private volatile int signInGeneration;
+        // The exception the most recent sign-in failed with, if any. Guarded by signInLock.
+        private RuntimeException signInFailure;
 
         public TestUser(SignIn signIn, ClientManager manager) {
             checkNotNull(signIn.getStudy());
@@ -65,17 +76,67 @@ public class TestUserHelper {
         public <T> T getClient(Class<T> service) {
             return manager.getClient(service);
         }
+        /**
+         * Number of sign-ins completed so far. Capture this when a request finds the session expired and pass it to
+         * {@link #signInAgain(int)}, so that callers who saw the same expired session share one sign-in.
+         */
+        public int getSignInGeneration() {
+            return signInGeneration;
+        }
+        /**
+         * Always signs in again, e.g. to pick up a change to the user's consents or roles. This starts a new
+         * generation, so concurrent {@link #signInAgain(int)} callers share its result.
+         */
         public UserSessionInfo signInAgain() {
+            synchronized (signInLock) {
+                return signIn();
+            }
+        }
+        /**
+         * Signs in again if no sign-in has completed since generation was captured (see
+         * {@link #getSignInGeneration()}); otherwise returns the newer session, or throws a copy of the exception
+         * that sign-in failed with. An expired session shared by many threads therefore costs exactly one sign-in,
+         * even when the server is failing.
+         */
+        public UserSessionInfo signInAgain(int generation) {
+            synchronized (signInLock) {
+                if (signInGeneration == generation) {
+                    return signIn();
+                }
+                if (signInFailure instanceof ConsentRequiredException) {
+                    ConsentRequiredException e = (ConsentRequiredException) signInFailure;
+                    throw new ConsentRequiredException(e.getMessage(), e.getEndpoint(), e.getSession());
+                } else if (signInFailure != null) {
+                    throw new BridgeSDKException(signInFailure.getMessage(), signInFailure);
+                }
+                return userSession;
+            }
+        }
+        // Must hold signInLock. Every attempt starts a new generation and records its outcome for waiting callers.
+        private UserSessionInfo signIn() {
+            signInFailure = null;
+            signInCount.incrementAndGet();
             AuthenticationApi authApi = manager.getClient(AuthenticationApi.class);
             try {
                 userSession = authApi.signIn(getSignIn()).execute().body();
+                return userSession;
             } catch (ConsentRequiredException e) {
+                signInFailure = e;
                 userSession = e.getSession();
                 throw e;
+            } catch (RuntimeException e) {
+                signInFailure = e;
+                throw e;
             } catch(IOException ioe) {
-                throw new BridgeSDKException(ioe.getMessage(), ioe);
+                signInFailure = new BridgeSDKException(ioe.getMessage(), ioe);
+                throw signInFailure;
+            } finally {
+                signInGeneration++;
             }
-            return userSession;
+        }
+        /** Number of sign-in calls this user has actually sent to the server through signInAgain(). */
+        public int getSignInCount() {
+            return signInCount.get();
         }
         public void signOut() throws IOException {
             AuthenticationApi authApi = manager.getClient(AuthenticationApi.class);
@@ -124,6 +185,53 @@ public class TestUserHelper {
     public static TestUser createAndSignInUser(Class<?> cls, boolean consentUser, SignUp signUp) throws IOException {
         return new TestUserHelper.Builder(cls).withConsentUser(consentUser).withSignUp(signUp).createAndSignInUser();
     }
+
+    /**
+     * Create and sign in many users at once for load tests, using one admin session and the given number of
+     * concurrent requests. If any user cannot be created, the users that were created are deleted.
+     */
+    public static List<TestUser> createAndSignInUsers(Class<?> cls, boolean consentUser, int count, int threads)
+            throws IOException {
+        TestUser admin = getSignedInAdmin();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<TestUser>> futures = new ArrayList<>();
+        try {
+            for (int i=0; i < count; i++) {
+                SignUp signUp = new SignUp().email(Tests.makeEmail(cls, i));
+                futures.add(executor.submit(() -> new TestUserHelper.Builder(cls).withConsentUser(consentUser)
+                        .withSignUp(signUp).createAndSignInUser(admin)));
+            }
+            List<TestUser> users = new ArrayList<>();
+            RuntimeException failure = null;
+            for (Future<TestUser> future : futures) {
+                try {
+                    users.add(future.get());
+                } catch (ExecutionException e) {
+                    failure = new BridgeSDKException(e.getCause().getMessage(), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure = new BridgeSDKException(e.getMessage(), e);
+                }
+            }
+            if (failure != null) {
+                deleteUsers(users);
+                throw failure;
+            }
+            return users;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /** Delete many users with a single admin session, rather than signing in an admin per user. */
+    public static void deleteUsers(List<TestUser> users) throws IOException {
+        ForAdminsApi adminsApi = getSignedInAdmin().getClient(ForAdminsApi.class);
+        for (TestUser user : users) {
+            if (user.getSession() != null) {
+                adminsApi.deleteUser(user.getSession().getId()).execute();
+            }
+        }
+    }
     
     public static class Builder {
         private Class<?> cls;
@@ -157,10 +265,13 @@ public class TestUserHelper {
         }
         
         public TestUser createAndSignInUser() throws IOException {
+            return createAndSignInUser(getSignedInAdmin());
+        }
+
+        TestUser createAndSignInUser(TestUser admin) throws IOException {
             if (clientInfo == null) {
                 clientInfo = CLIENT_INFO;
             }
-            TestUser admin = getSignedInAdmin();
             ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
             
             Set<Role> rolesList = new HashSet<>();
@@ -40,10 +40,18 @@ public class Tests {
     }
 
     public static String makeEmail(Class<?> cls) {
+        return makeEmail(cls, RandomStringUtils.randomAlphabetic(4));
+    }
+
+    // Bulk-created users get an index in their email as well, so thousands of accounts don't collide on the random part.
+    public static String makeEmail(Class<?> cls, int index) {
+        return makeEmail(cls, RandomStringUtils.randomAlphabetic(4) + "-" + index);
+    }
+
+    private static String makeEmail(Class<?> cls, String suffix) {
         String devName = CONFIG.getDevName();
         String clsPart = cls.getSimpleName();
-        String rndPart = RandomStringUtils.randomAlphabetic(4);
-        return String.format("bridge-testing+%s-%s-%s@sagebase.org", devName, clsPart, rndPart);
+        return String.format("bridge-testing+%s-%s-%s@sagebase.org", devName, clsPart, suffix);
     }
     
     private static void setTaskActivity(Schedule schedule, String taskIdentifier) {
@@ -0,0 +1,155 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.exceptions.BridgeSDKException;
+import org.sagebionetworks.bridge.rest.model.Upload;
+import org.sagebionetworks.bridge.rest.model.UploadList;
+
+/**
+ * Lists the uploads of a study over a long time range by splitting [startTime, endTime) into sub-windows, paging
+ * each sub-window concurrently, and returning the results as a single stream in requestedOn order.
+ *
+ * A sub-window whose first page is full (the server returned an offsetKey) is considered "hot" and is split in half
+ * again, until it is no larger than the minimum window duration, at which point it is paged serially. The first page
+ * of a split window is discarded, since each half will fetch it again with a narrower range.
+ */
+public class UploadLister {
+
+    private static final long DEFAULT_PAGE_SIZE = 100L;
+    private static final int DEFAULT_SLICES = 8;
+    private static final Duration DEFAULT_MIN_WINDOW = Duration.standardMinutes(5);
+    private static final Comparator<Upload> REQUESTED_ON_ORDER = Comparator.comparing(Upload::getRequestedOn,
+            Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final StudiesApi studiesApi;
+    private final ExecutorService executor;
+    private long pageSize = DEFAULT_PAGE_SIZE;
+    private int slices = DEFAULT_SLICES;
+    private Duration minWindow = DEFAULT_MIN_WINDOW;
+
+    public UploadLister(StudiesApi studiesApi, int threads) {
+        checkNotNull(studiesApi);
+        checkArgument(threads > 0);
+        this.studiesApi = studiesApi;
+        this.executor = Executors.newFixedThreadPool(threads);
+    }
+
+    public UploadLister withPageSize(long pageSize) {
+        checkArgument(pageSize > 0);
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    public UploadLister withSlices(int slices) {
+        checkArgument(slices > 0);
+        this.slices = slices;
+        return this;
+    }
+
+    public UploadLister withMinWindow(Duration minWindow) {
+        checkNotNull(minWindow);
+        this.minWindow = minWindow;
+        return this;
+    }
+
+    /**
+     * Returns all uploads requested in [startTime, endTime), ordered by requestedOn. All sub-windows are submitted
+     * immediately; the stream blocks on each window in turn as it is consumed. Uploads that fall on the boundary
+     * between two windows are only returned once.
+     */
+    public Stream<Upload> list(DateTime startTime, DateTime endTime) {
+        checkNotNull(startTime);
+        checkNotNull(endTime);
+        checkArgument(startTime.isBefore(endTime), "startTime must be before endTime");
+
+        long sliceMillis = Math.max(1L, (endTime.getMillis() - startTime.getMillis()) / slices);
+        List<CompletableFuture<List<Upload>>> windows = new ArrayList<>();
+        for (DateTime windowStart = startTime; windowStart.isBefore(endTime);) {
+            DateTime windowEnd = windowStart.plus(sliceMillis);
+            if (windowEnd.isAfter(endTime)) {
+                windowEnd = endTime;
+            }
+            windows.add(listWindow(windowStart, windowEnd));
+            windowStart = windowEnd;
+        }
+        Set<String> seenIds = new HashSet<>();
+        return windows.stream().flatMap(window -> join(window).stream())
+                .filter(upload -> seenIds.add(upload.getUploadId()));
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Rethrow the rest client's own exception, so callers can catch EntityNotFoundException etc. as usual.
+    private static List<Upload> join(CompletableFuture<List<Upload>> window) {
+        try {
+            return window.join();
+        } catch (CompletionException e) {
+            Throwable cause = e;
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new BridgeSDKException(cause.getMessage(), cause);
+        }
+    }
+
+    private CompletableFuture<List<Upload>> listWindow(DateTime windowStart, DateTime windowEnd) {
+        return CompletableFuture.supplyAsync(() -> getPage(windowStart, windowEnd, null), executor)
+                .thenCompose(firstPage -> {
+                    long windowMillis = windowEnd.getMillis() - windowStart.getMillis();
+                    if (firstPage.getOffsetKey() != null && windowMillis > minWindow.getMillis()) {
+                        DateTime midpoint = windowStart.plus(windowMillis / 2);
+                        CompletableFuture<List<Upload>> left = listWindow(windowStart, midpoint);
+                        CompletableFuture<List<Upload>> right = listWindow(midpoint, windowEnd);
+                        return left.thenCombine(right, (leftUploads, rightUploads) -> {
+                            leftUploads.addAll(rightUploads);
+                            return leftUploads;
+                        });
+                    }
+                    return CompletableFuture.supplyAsync(() -> pageRemaining(windowStart, windowEnd, firstPage),
+                            executor);
+                });
+    }
+
+    private List<Upload> pageRemaining(DateTime windowStart, DateTime windowEnd, UploadList firstPage) {
+        List<Upload> uploads = new ArrayList<>(firstPage.getItems());
+        String offsetKey = firstPage.getOffsetKey();
+        while (offsetKey != null) {
+            UploadList page = getPage(windowStart, windowEnd, offsetKey);
+            uploads.addAll(page.getItems());
+            offsetKey = page.getOffsetKey();
+        }
+        uploads.sort(REQUESTED_ON_ORDER);
+        return uploads;
+    }
+
+    private UploadList getPage(DateTime windowStart, DateTime windowEnd, String offsetKey) {
+        try {
+            return studiesApi.getUploads(windowStart, windowEnd, pageSize, offsetKey).execute().body();
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+    }
+}
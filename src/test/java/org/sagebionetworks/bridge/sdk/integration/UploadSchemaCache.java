@@ -0,0 +1,174 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.DateTimeUtils;
+import org.joda.time.Duration;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.ForWorkersApi;
+import org.sagebionetworks.bridge.rest.api.UploadSchemasApi;
+import org.sagebionetworks.bridge.rest.exceptions.BridgeSDKException;
+import org.sagebionetworks.bridge.rest.model.UploadSchema;
+
+/**
+ * Client-side cache of upload schemas. Schema revisions, keyed by (studyId, schemaId, revision), are cached for the
+ * life of the cache. Which revision is the most recent one can change, so that pointer is only trusted for a short
+ * TTL.
+ *
+ * Writes through this cache (createOrUpdateUploadSchema, createUploadSchema, updateUploadSchema) replace the cached
+ * revision and drop the most-recent pointer. A revision updated in place by another client is not detected; call
+ * {@link #invalidate(String)} if that can happen.
+ *
+ * Developer calls use the developer's own study, which must be given to the constructor; worker calls
+ * ({@link #getSchemaRevision(String, String, long)}) can name any study. Either API may be null if its calls aren't
+ * used. Schemas returned by the cache always have their studyId set, and are copies that callers may modify.
+ */
+public class UploadSchemaCache {
+
+    private static final class Pointer {
+        private final long revision;
+        private final long fetchedOn;
+        Pointer(long revision, long fetchedOn) {
+            this.revision = revision;
+            this.fetchedOn = fetchedOn;
+        }
+    }
+
+    private final String studyId;
+    private final UploadSchemasApi schemasApi;
+    private final ForWorkersApi workersApi;
+    private final long mostRecentTtlMillis;
+    private final ConcurrentMap<String, UploadSchema> revisions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Pointer> mostRecent = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public UploadSchemaCache(String studyId, UploadSchemasApi schemasApi, ForWorkersApi workersApi,
+            Duration mostRecentTtl) {
+        checkNotNull(studyId);
+        checkArgument(schemasApi != null || workersApi != null, "Either schemasApi or workersApi is required");
+        checkNotNull(mostRecentTtl);
+        this.studyId = studyId;
+        this.schemasApi = schemasApi;
+        this.workersApi = workersApi;
+        this.mostRecentTtlMillis = mostRecentTtl.getMillis();
+    }
+
+    public UploadSchema getMostRecentUploadSchema(String schemaId) {
+        checkNotNull(schemaId);
+        checkState(schemasApi != null, "No UploadSchemasApi was provided");
+        Pointer pointer = mostRecent.get(schemaId);
+        if (pointer != null && DateTimeUtils.currentTimeMillis() - pointer.fetchedOn <= mostRecentTtlMillis) {
+            UploadSchema schema = revisions.get(key(studyId, schemaId, pointer.revision));
+            if (schema != null) {
+                hits.incrementAndGet();
+                return copy(schema);
+            }
+        }
+        misses.incrementAndGet();
+        try {
+            UploadSchema schema = cache(studyId, schemasApi.getMostRecentUploadSchema(schemaId).execute().body());
+            mostRecent.put(schemaId, new Pointer(schema.getRevision(), DateTimeUtils.currentTimeMillis()));
+            return schema;
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+    }
+
+    public UploadSchema getSchemaRevision(String studyId, String schemaId, long revision) {
+        checkNotNull(studyId);
+        checkNotNull(schemaId);
+        UploadSchema schema = revisions.get(key(studyId, schemaId, revision));
+        if (schema != null) {
+            hits.incrementAndGet();
+            return copy(schema);
+        }
+        checkState(workersApi != null, "No ForWorkersApi was provided");
+        misses.incrementAndGet();
+        try {
+            return cache(studyId, workersApi.getSchemaRevisionInStudy(studyId, schemaId, revision).execute()
+                    .body());
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+    }
+
+    public UploadSchema createOrUpdateUploadSchema(UploadSchema schema) {
+        checkNotNull(schema);
+        checkState(schemasApi != null, "No UploadSchemasApi was provided");
+        try {
+            return written(schemasApi.createOrUpdateUploadSchema(schema).execute().body());
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+    }
+
+    public UploadSchema createUploadSchema(UploadSchema schema) {
+        checkNotNull(schema);
+        checkState(schemasApi != null, "No UploadSchemasApi was provided");
+        try {
+            return written(schemasApi.createUploadSchema(schema).execute().body());
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+    }
+
+    public UploadSchema updateUploadSchema(String schemaId, long revision, UploadSchema schema) {
+        checkNotNull(schemaId);
+        checkNotNull(schema);
+        checkState(schemasApi != null, "No UploadSchemasApi was provided");
+        try {
+            return written(schemasApi.updateUploadSchema(schemaId, revision, schema).execute().body());
+        } catch (IOException e) {
+            throw new BridgeSDKException(e.getMessage(), e);
+        }
+    }
+
+    /** Drop the most-recent pointer and every cached revision of this schema in the caller's study. */
+    public void invalidate(String schemaId) {
+        mostRecent.remove(schemaId);
+        String prefix = studyId + ":" + schemaId + ":";
+        revisions.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return (total == 0) ? 0.0 : (double) hits.get() / total;
+    }
+
+    private UploadSchema written(UploadSchema schema) {
+        mostRecent.remove(schema.getSchemaId());
+        return cache(studyId, schema);
+    }
+
+    private UploadSchema cache(String studyId, UploadSchema schema) {
+        UploadSchema cached = copy(schema);
+        cached.setStudyId(studyId);
+        revisions.put(key(studyId, cached.getSchemaId(), cached.getRevision()), cached);
+        return copy(cached);
+    }
+
+    private static String key(String studyId, String schemaId, long revision) {
+        return studyId + ":" + schemaId + ":" + revision;
+    }
+
+    private static UploadSchema copy(UploadSchema schema) {
+        return RestUtils.GSON.fromJson(RestUtils.GSON.toJson(schema), UploadSchema.class);
+    }
+}
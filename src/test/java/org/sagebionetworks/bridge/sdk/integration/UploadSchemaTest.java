@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.joda.time.DateTime;
+import org.joda.time.Duration;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -384,6 +385,38 @@ public class UploadSchemaTest {
         }
     }
 
+    @Test
+    public void schemaCacheInvalidatedByWrites() throws Exception {
+        UploadSchemaCache cache = new UploadSchemaCache(Tests.TEST_KEY, devUploadSchemasApi,
+                workerUploadSchemasApi, Duration.standardMinutes(1));
+
+        UploadSchema createdSchema = cache.createOrUpdateUploadSchema(makeSimpleSchema(schemaId, null, null));
+        long rev = createdSchema.getRevision();
+
+        // First read of the most recent revision goes to the server, the second doesn't.
+        UploadSchema fetchedSchema = cache.getMostRecentUploadSchema(schemaId);
+        assertEquals(rev, fetchedSchema.getRevision().longValue());
+        assertEquals(Tests.TEST_KEY, fetchedSchema.getStudyId());
+        cache.getMostRecentUploadSchema(schemaId);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+
+        // The worker lookup of the same revision is served from the cache.
+        UploadSchema workerSchema = cache.getSchemaRevision(Tests.TEST_KEY, schemaId, rev);
+        assertEquals(fetchedSchema.getFieldDefinitions(), workerSchema.getFieldDefinitions());
+        assertEquals(2, cache.getHitCount());
+
+        // Writing a new revision through the cache drops the most recent pointer.
+        UploadSchema schemaV2 = makeSimpleSchema(schemaId, rev, null);
+        schemaV2.setVersion(createdSchema.getVersion());
+        UploadSchema updatedSchema = cache.createOrUpdateUploadSchema(schemaV2);
+        UploadSchema fetchedSchemaV2 = cache.getMostRecentUploadSchema(schemaId);
+        assertEquals(updatedSchema.getRevision(), fetchedSchemaV2.getRevision());
+        assertTrue(fetchedSchemaV2.getRevision() > rev);
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRatio(), 0.001);
+    }
+
     @Test(expected=UnauthorizedException.class)
     public void unauthorizedTest() throws Exception {
         user.getClient(UploadSchemasApi.class).getMostRecentUploadSchemas().execute();